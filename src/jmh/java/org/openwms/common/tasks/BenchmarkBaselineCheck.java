@@ -0,0 +1,95 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A BenchmarkBaselineCheck compares the results of a JMH run with the checked in baseline and fails if the time or the allocated
+ * bytes per operation of a benchmark got worse than the tolerance allows. Single benchmarks without a baseline are only
+ * reported, but an empty baseline fails the check, otherwise nothing would ever be compared. As long as no baseline has been
+ * recorded at all, the check is skipped and says so.
+ * <p>
+ * Arguments: the result file, the baseline file and optionally the tolerance in percent (default 10). To accept the current
+ * results as new baseline, copy the result file over the baseline file, on the same machine the comparisons run on.
+ *
+ * @author Heiko Scherrer
+ */
+public final class BenchmarkBaselineCheck {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    private BenchmarkBaselineCheck() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkBaselineCheck <result.json> <baseline.json> [tolerance %]");
+            System.exit(2);
+        }
+        var tolerance = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.1;
+        if (Files.notExists(Path.of(args[1]))) {
+            System.out.printf("No baseline recorded yet, the comparison is skipped. Record it by copying %s to %s%n", args[0], args[1]);
+            return;
+        }
+        var results = read(Path.of(args[0]));
+        var baseline = read(Path.of(args[1]));
+        if (baseline.isEmpty()) {
+            System.err.printf("The baseline %s is empty, record it by copying %s over it%n", args[1], args[0]);
+            System.exit(1);
+        }
+        var regressions = 0;
+        for (var entry : results.entrySet()) {
+            var expected = baseline.get(entry.getKey());
+            if (expected == null) {
+                System.out.printf("NEW        %s: %.1f ns/op, %.0f B/op%n", entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+                continue;
+            }
+            var timeRatio = entry.getValue()[0] / expected[0];
+            var allocRatio = expected[1] == 0 ? (entry.getValue()[1] == 0 ? 1 : Double.POSITIVE_INFINITY) : entry.getValue()[1] / expected[1];
+            var regressed = timeRatio > 1 + tolerance || allocRatio > 1 + tolerance;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-10s %s: %.1f ns/op (%+.1f%%), %.0f B/op (%+.1f%%)%n", regressed ? "REGRESSED" : "OK", entry.getKey(),
+                    entry.getValue()[0], (timeRatio - 1) * 100, entry.getValue()[1], (allocRatio - 1) * 100);
+        }
+        if (regressions > 0) {
+            System.err.printf("%d benchmarks regressed by more than %.0f%%%n", regressions, tolerance * 100);
+            System.exit(1);
+        }
+    }
+
+    /*
+     * Maps the benchmark name including its parameters to the average time and the normalized allocation per operation.
+     */
+    private static Map<String, double[]> read(Path file) throws IOException {
+        var result = new LinkedHashMap<String, double[]>();
+        for (JsonNode run : new ObjectMapper().readTree(Files.readString(file))) {
+            var name = new StringBuilder(run.path("benchmark").asText());
+            run.path("params").fields().forEachRemaining(p -> name.append(':').append(p.getKey()).append('=').append(p.getValue().asText()));
+            var alloc = run.path("secondaryMetrics").path(ALLOCATION).path("score").asDouble(0);
+            result.put(name.toString(), new double[]{run.path("primaryMetric").path("score").asDouble(), alloc});
+        }
+        return result;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.events;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openwms.common.tasks.api.TaskState;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.converter.SerializerMessageConverter;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A TaskMOConverterBenchmark compares the AMQP {@link MessageConverter}s that are selectable with
+ * {@code owms.tasks.serialization}. The size of a message of each format is printed once per fork.
+ *
+ * @author Heiko Scherrer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskMOConverterBenchmark {
+
+    @Param({"json", "barray", "binary"})
+    private String serialization;
+    private MessageConverter converter;
+    private TaskMO task;
+    private Message message;
+
+    @Setup
+    public void setup() {
+        converter = switch (serialization) {
+            case "json" -> new Jackson2JsonMessageConverter(TaskMO.class.getPackageName());
+            case "barray" -> {
+                var serializer = new SerializerMessageConverter();
+                serializer.setAllowedListPatterns(List.of(TaskMO.class.getPackageName() + ".*", "org.openwms.common.tasks.api.*", "java.*"));
+                yield serializer;
+            }
+            case "binary" -> new TaskMOMessageConverter();
+            default -> throw new IllegalArgumentException("Unknown serialization " + serialization);
+        };
+        task = new TaskMO();
+        task.setpKey("c0ffee00-1234-4b0b-9a1e-7f3a2b1c0d9e");
+        task.setTaskId("T0000004711");
+        task.setDescription("Pick the pallet from the inbound buffer");
+        task.setType("MANUAL");
+        task.setState(TaskState.ACTIVE);
+        task.setStartedAt(ZonedDateTime.of(2025, 3, 1, 8, 15, 30, 0, ZoneOffset.ofHours(1)));
+        message = converter.toMessage(task, new MessageProperties());
+    }
+
+    @TearDown
+    public void report() {
+        System.out.printf("%n[%s] bytes per message: %d%n", serialization, message.getBody().length);
+    }
+
+    @Benchmark
+    public Message encode() {
+        return converter.toMessage(task, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object decode() {
+        return converter.fromMessage(message);
+    }
+}
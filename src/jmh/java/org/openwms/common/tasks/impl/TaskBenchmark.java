@@ -0,0 +1,112 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openwms.common.tasks.TimeProvider;
+import org.openwms.common.tasks.api.TaskState;
+import org.openwms.common.tasks.api.TaskVO;
+import org.openwms.common.tasks.app.DefaultTimeProvider;
+import org.openwms.common.tasks.events.TaskMO;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A TaskBenchmark measures the code every request to the service passes through.
+ *
+ * @author Heiko Scherrer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskBenchmark {
+
+    private final TaskMapper mapper = new TaskMapperImpl();
+    private final TimeProvider timeProvider = new DefaultTimeProvider();
+    private TaskEO task;
+    private TaskEO same;
+    private long id;
+
+    private static TaskEO newTask() {
+        var parent = new TaskEO();
+        parent.setTaskId("T0000004710");
+        parent.setType("MANUAL");
+        parent.setState(TaskState.ACTIVE);
+        var eo = new TaskEO();
+        eo.setTaskId("T0000004711");
+        eo.setDescription("Pick the pallet from the inbound buffer");
+        eo.setType("MANUAL");
+        eo.setState(TaskState.ACTIVE);
+        eo.setParentTask(parent);
+        eo.setStartedAt(ZonedDateTime.of(2025, 3, 1, 8, 15, 30, 0, ZoneOffset.ofHours(1)));
+        return eo;
+    }
+
+    @Setup
+    public void setup() {
+        task = newTask();
+        same = newTask();
+    }
+
+    @Benchmark
+    public TaskVO convertToVO() {
+        return mapper.convertToVO(task);
+    }
+
+    @Benchmark
+    public TaskMO convertToMO() {
+        return mapper.convertToMO(task);
+    }
+
+    @Benchmark
+    public String formatTaskId() {
+        return TaskIdAllocator.toTaskId(++id);
+    }
+
+    @Benchmark
+    public ZonedDateTime nowAsZonedDateTime() {
+        return timeProvider.nowAsZonedDateTime();
+    }
+
+    @Benchmark
+    public boolean taskEquals() {
+        return task.equals(same);
+    }
+
+    @Benchmark
+    public int taskHashCode() {
+        return task.hashCode();
+    }
+
+    @Benchmark
+    public String taskToString() {
+        return task.toString();
+    }
+}
@@ -0,0 +1,341 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.ServiceLoader;
+
+/**
+ * An IdempotencyFilter answers retries of {@code POST} requests to the Task resources that carry the same
+ * {@value #HEADER} header with the response of the first request, without processing them again. This way a retried
+ * creation does not create a duplicate Task and a retried transition does not fail because it has already been applied.
+ * <p>
+ * A key is only valid for the same caller, method and URI and must not be used again with a different request body, which is
+ * rejected with {@code 422 Unprocessable Entity}. Before a request is processed the key is claimed in the database, the unique
+ * key lets only one instance of the service win. A retry that arrives while the first request is still processed, by any
+ * instance, is rejected with {@code 409 Conflict}. If the processing instance dies, the claim is released after the
+ * {@code owms.tasks.idempotency.lock-timeout}.
+ * <p>
+ * Only successful responses are kept, failed requests are processed again when retried. The responses are kept in a bounded
+ * in-memory cache and in the database, so that a retry that reaches another instance or arrives after the cache entry has been
+ * evicted is answered as well, until the {@code owms.tasks.idempotency.ttl} expires. A response body that is too large to
+ * store is not kept, a retry is then answered with the status and the headers of the response only. Long-polling claims are
+ * not covered, because their response is written asynchronously.
+ *
+ * @author Heiko Scherrer
+ */
+@Component
+class IdempotencyFilter extends OncePerRequestFilter {
+
+    /** The request header that carries the client chosen key. */
+    static final String HEADER = "Idempotency-Key";
+    /** The response header that marks a response as replayed. */
+    static final String HEADER_REPLAYED = "Idempotent-Replayed";
+    /** The caller of requests without an authenticated user. */
+    static final String ANONYMOUS = "anonymous";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdempotencyFilter.class);
+    private final TimeProvider timeProvider = ServiceLoader.load(TimeProvider.class).iterator().next();
+    private final Cache<String, IdempotentResponseEO> responses;
+    private final IdempotentResponseRepository repository;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+    private final Counter replayed;
+    private final Counter conflicts;
+
+    IdempotencyFilter(IdempotentResponseRepository repository, MeterRegistry meterRegistry,
+            @Value("${owms.tasks.idempotency.enabled:true}") boolean enabled,
+            @Value("${owms.tasks.idempotency.ttl:PT24H}") Duration ttl,
+            @Value("${owms.tasks.idempotency.lock-timeout:PT1M}") Duration lockTimeout,
+            @Value("${owms.tasks.idempotency.max-size:10000}") long maxSize) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.replayed = Counter.builder("owms.tasks.idempotency.replayed")
+                .description("Number of retried requests answered with the response of the first request")
+                .register(meterRegistry);
+        this.conflicts = Counter.builder("owms.tasks.idempotency.conflicts")
+                .description("Number of retried requests rejected because the first request was still processed or had a different body")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !HttpMethod.POST.matches(request.getMethod())
+                || request.getHeader(HEADER) == null
+                || !request.getRequestURI().startsWith(request.getContextPath() + "/tasks")
+                || request.getParameter("wait") != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        var idempotencyKey = request.getHeader(HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "The %s must not be empty and not longer than %d characters".formatted(HEADER, MAX_KEY_LENGTH));
+            return;
+        }
+        var body = StreamUtils.copyToByteArray(request.getInputStream());
+        var requestKey = requestKey(request.getMethod(), request.getRequestURI(),
+                Objects.requireNonNullElse(request.getRemoteUser(), ANONYMOUS), idempotencyKey);
+        var claim = new IdempotentResponseEO(requestKey, hash(body), timeProvider.now().plus(lockTimeout));
+        var stored = lookup(requestKey);
+        if (stored == null && !claim(claim)) {
+            stored = lookup(requestKey);
+            if (stored == null) {
+                // The other request has failed in between, the retry is up to the client
+                reject(HttpServletResponse.SC_CONFLICT, "A request with the same %s is in progress", response);
+                return;
+            }
+        }
+        if (stored != null) {
+            answer(stored, claim.getRequestHash(), response);
+            return;
+        }
+        var wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(new CachedBodyRequest(request, body), wrapper);
+        } catch (IOException | ServletException | RuntimeException e) {
+            release(claim);
+            throw e;
+        }
+        if (wrapper.getStatus() >= 200 && wrapper.getStatus() < 300) {
+            store(claim, wrapper);
+        } else {
+            release(claim);
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    /*
+     * An expired entry is deleted, so that the key can be claimed again.
+     */
+    private IdempotentResponseEO lookup(String requestKey) {
+        var stored = responses.getIfPresent(requestKey);
+        if (stored != null) {
+            return stored;
+        }
+        try {
+            stored = repository.findByRequestKey(requestKey).orElse(null);
+            if (stored != null && stored.isExpired(timeProvider.now())) {
+                repository.delete(stored);
+                return null;
+            }
+        } catch (DataAccessException e) {
+            LOGGER.warn("Could not look up a stored response, the request is processed: [{}]", e.getMessage());
+            return null;
+        }
+        if (stored != null && !stored.isPending()) {
+            responses.put(requestKey, stored);
+        }
+        return stored;
+    }
+
+    /*
+     * The claim is committed on its own, so that it is visible to all instances while the request is processed. If the
+     * database cannot be reached, the request is processed without a claim.
+     */
+    private boolean claim(IdempotentResponseEO claim) {
+        try {
+            repository.save(claim);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        } catch (DataAccessException e) {
+            LOGGER.warn("Could not claim the key of an idempotent request, the request is processed: [{}]", e.getMessage());
+            return true;
+        }
+    }
+
+    private void release(IdempotentResponseEO claim) {
+        if (claim.getPk() == null) {
+            return;
+        }
+        try {
+            repository.delete(claim);
+        } catch (DataAccessException e) {
+            // Released after the lock-timeout anyway
+            LOGGER.warn("Could not release the key of an idempotent request: [{}]", e.getMessage());
+        }
+    }
+
+    private void answer(IdempotentResponseEO stored, String requestHash, HttpServletResponse response) throws IOException {
+        if (!stored.getRequestHash().equals(requestHash)) {
+            reject(HttpStatus.UNPROCESSABLE_ENTITY.value(), "The %s has already been used for a request with a different body", response);
+        } else if (stored.isPending()) {
+            reject(HttpServletResponse.SC_CONFLICT, "A request with the same %s is in progress", response);
+        } else {
+            replay(stored, response);
+        }
+    }
+
+    private void reject(int status, String message, HttpServletResponse response) throws IOException {
+        conflicts.increment();
+        response.sendError(status, message.formatted(HEADER));
+    }
+
+    private void replay(IdempotentResponseEO stored, HttpServletResponse response) throws IOException {
+        replayed.increment();
+        response.setStatus(stored.getStatus());
+        response.setHeader(HEADER_REPLAYED, "true");
+        if (stored.getContentType() != null && !stored.isBodyOmitted()) {
+            response.setContentType(stored.getContentType());
+        }
+        if (stored.getLocation() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.getLocation());
+        }
+        if (stored.getEtag() != null) {
+            response.setHeader(HttpHeaders.ETAG, stored.getEtag());
+        }
+        if (stored.getBody() != null) {
+            var body = stored.getBody().getBytes(StandardCharsets.UTF_8);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    /*
+     * The response is already committed to the database when it is stored, a failure to store it must not fail the request. A
+     * body that is too large is omitted, but the claim is completed anyway, so that a retry is not processed again.
+     */
+    private void store(IdempotentResponseEO claim, ContentCachingResponseWrapper wrapper) {
+        var body = new String(wrapper.getContentAsByteArray(), StandardCharsets.UTF_8);
+        claim.complete(wrapper.getStatus(), wrapper.getContentType(), wrapper.getHeader(HttpHeaders.LOCATION),
+                wrapper.getHeader(HttpHeaders.ETAG), body, timeProvider.now().plus(ttl));
+        if (claim.isBodyOmitted()) {
+            LOGGER.debug("Response of [{}] characters is too large to store, only its status is replayed", body.length());
+        }
+        responses.put(claim.getRequestKey(), claim);
+        try {
+            repository.save(claim);
+        } catch (DataAccessException e) {
+            LOGGER.warn("Could not store the response to an idempotent request: [{}]", e.getMessage());
+        }
+    }
+
+    /**
+     * Delete the stored responses whose retention has expired.
+     */
+    @Scheduled(cron = "${owms.tasks.idempotency.purge-cron:0 15 * * * *}")
+    public void purge() {
+        var deleted = repository.deleteExpired(timeProvider.now());
+        LOGGER.debug("Deleted [{}] expired idempotent responses", deleted);
+    }
+
+    static String requestKey(String method, String uri, String caller, String idempotencyKey) {
+        return hash((method + " " + uri + "\n" + caller + "\n" + idempotencyKey).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String hash(byte[] value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by the JVM", e);
+        }
+    }
+
+    /*
+     * The body has been read to calculate its hash, so it is served from memory to the controllers.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            var in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Non-blocking reads are not supported");
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws UnsupportedEncodingException {
+            var encoding = Objects.requireNonNullElse(getCharacterEncoding(), StandardCharsets.UTF_8.name());
+            return new BufferedReader(new InputStreamReader(getInputStream(), encoding));
+        }
+    }
+}
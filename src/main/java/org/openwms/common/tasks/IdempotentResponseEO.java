@@ -0,0 +1,167 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import org.ameba.integration.jpa.ApplicationEntity;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.StringJoiner;
+
+/**
+ * An IdempotentResponseEO is the response to a request with an {@code Idempotency-Key}, kept to answer retries of the same
+ * request without processing them again. It is stored as pending, without a status, before the request is processed, so that
+ * only one instance of the service processes the request.
+ *
+ * @author Heiko Scherrer
+ */
+@Entity
+@Table(name = "TSK_IDEMPOTENT_RESPONSE",
+        uniqueConstraints = @UniqueConstraint(name = "UC_IDEMPOTENT_KEY", columnNames = "C_KEY"),
+        indexes = {
+                @Index(name = "IDX_IDEMPOTENT_EXPIRES_AT", columnList = "C_EXPIRES_AT")
+        })
+public class IdempotentResponseEO extends ApplicationEntity implements Serializable {
+
+    /** The maximum length of a response body that is stored. */
+    static final int MAX_BODY_LENGTH = 1_000_000;
+
+    /** Hash of the key together with the method, the URI and the caller of the request. */
+    @NotNull
+    @Column(name = "C_KEY", nullable = false, length = 64)
+    private String requestKey;
+
+    /** Hash of the request body, a retry must send the same body. */
+    @NotNull
+    @Column(name = "C_REQUEST_HASH", nullable = false, length = 64)
+    private String requestHash;
+
+    /** The HTTP status of the response or {@literal 0} as long as the request is processed. */
+    @Column(name = "C_STATUS", nullable = false)
+    private int status;
+
+    @Column(name = "C_CONTENT_TYPE")
+    private String contentType;
+
+    @Column(name = "C_LOCATION", length = 1024)
+    private String location;
+
+    @Column(name = "C_ETAG")
+    private String etag;
+
+    @Column(name = "C_BODY", length = MAX_BODY_LENGTH)
+    private String body;
+
+    /** Whether the response had a body that was too large to store, only the status and the headers are replayed then. */
+    @Column(name = "C_BODY_OMITTED", nullable = false)
+    private boolean bodyOmitted;
+
+    @NotNull
+    @Column(name = "C_EXPIRES_AT", nullable = false)
+    private Instant expiresAt;
+
+    /** Dear JPA... */
+    protected IdempotentResponseEO() {}
+
+    IdempotentResponseEO(String requestKey, String requestHash, Instant expiresAt) {
+        this.requestKey = requestKey;
+        this.requestHash = requestHash;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Complete the response to the request. A body longer than {@value #MAX_BODY_LENGTH} characters is not kept.
+     */
+    void complete(int status, String contentType, String location, String etag, String body, Instant expiresAt) {
+        this.status = status;
+        this.contentType = contentType;
+        this.location = location;
+        this.etag = etag;
+        if (body != null && body.length() > MAX_BODY_LENGTH) {
+            this.body = null;
+            this.bodyOmitted = true;
+        } else {
+            this.body = body;
+            this.bodyOmitted = false;
+        }
+        this.expiresAt = expiresAt;
+    }
+
+    boolean isPending() {
+        return status == 0;
+    }
+
+    boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    public String getRequestKey() {
+        return requestKey;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public boolean isBodyOmitted() {
+        return bodyOmitted;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Without the body.
+     */
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", IdempotentResponseEO.class.getSimpleName() + "[", "]")
+                .add("requestKey='" + requestKey + "'")
+                .add("status=" + status)
+                .add("bodyOmitted=" + bodyOmitted)
+                .add("expiresAt=" + expiresAt)
+                .toString();
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * An IdempotentResponseRepository.
+ *
+ * @author Heiko Scherrer
+ */
+interface IdempotentResponseRepository extends JpaRepository<IdempotentResponseEO, Long> {
+
+    Optional<IdempotentResponseEO> findByRequestKey(String requestKey);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotentResponseEO r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
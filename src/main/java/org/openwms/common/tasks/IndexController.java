@@ -35,7 +35,8 @@ class IndexController {
     public ResponseEntity<Index> getIndex() {
         return ResponseEntity.ok(
                 new Index(
-                        linkTo(methodOn(TaskController.class).index()).withRel("tasks-index")
+                        linkTo(methodOn(TaskController.class).index()).withRel("tasks-index"),
+                        linkTo(methodOn(TaskGroupController.class).index()).withRel("task-groups-index")
                 )
         );
     }
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.openwms.common.tasks.api.TaskFilterVO;
+import org.openwms.common.tasks.api.TaskVO;
+import org.openwms.common.tasks.events.TaskBatchEvent;
+import org.openwms.common.tasks.events.TaskEvent;
+import org.openwms.common.tasks.impl.TaskEO;
+import org.openwms.common.tasks.impl.TaskMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * A TaskChangeStream pushes the committed changes of Tasks to all subscribed clients as Server-Sent Events.
+ * <p>
+ * Each subscriber owns a ring buffer of bounded size and is drained by its own virtual thread. The publishing thread only
+ * appends to the buffers and never waits for a client. When the buffer of a slow client is full, either the oldest change is
+ * dropped or the client is disconnected, depending on {@code owms.tasks.stream.overflow-policy}.
+ *
+ * @author Heiko Scherrer
+ */
+@Component
+class TaskChangeStream {
+
+    /** What happens when the buffer of a subscriber is full. */
+    enum OverflowPolicy {
+        /** Drop the oldest buffered change in favour of the new one. */
+        DROP_OLDEST,
+        /** Disconnect the subscriber, the client is expected to reconnect and reload. */
+        DISCONNECT
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskChangeStream.class);
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final TaskMapper mapper;
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+    private final Duration timeout;
+    private final Counter dropped;
+    private final Counter disconnected;
+
+    TaskChangeStream(TaskMapper mapper, MeterRegistry meterRegistry,
+            @Value("${owms.tasks.stream.buffer-size:256}") int bufferSize,
+            @Value("${owms.tasks.stream.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy,
+            @Value("${owms.tasks.stream.timeout:PT30M}") Duration timeout) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("The buffer size of the TaskChangeStream must be greater than 0");
+        }
+        this.mapper = mapper;
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = overflowPolicy;
+        this.timeout = timeout;
+        this.dropped = Counter.builder("owms.tasks.stream.dropped")
+                .description("Number of changes dropped because a subscriber has been too slow")
+                .register(meterRegistry);
+        this.disconnected = Counter.builder("owms.tasks.stream.disconnected")
+                .description("Number of subscribers disconnected because they have been too slow")
+                .register(meterRegistry);
+        Gauge.builder("owms.tasks.stream.subscribers", subscribers, Set::size)
+                .description("Number of connected subscribers")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Subscribe to the changes of all Tasks that match the {@code filter}.
+     *
+     * @param filter Optional criteria, only {@code type}, {@code state} and {@code assignedTo} are considered
+     * @return The emitter that is kept open until the client disconnects or the timeout expires
+     */
+    SseEmitter subscribe(TaskFilterVO filter) {
+        var emitter = new SseEmitter(timeout.toMillis());
+        var subscriber = new Subscriber(emitter, filter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEvent(TaskEvent event) {
+        publish(List.of(event.getSource()), event.getType());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEvent(TaskBatchEvent event) {
+        publish(event.getSource(), event.getType());
+    }
+
+    private void publish(List<TaskEO> tasks, TaskEvent.Type type) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        var changes = new ArrayList<Change>(tasks.size());
+        for (var task : tasks) {
+            changes.add(new Change(task, type, mapper.convertToVO(task)));
+        }
+        for (var subscriber : subscribers) {
+            for (var change : changes) {
+                if (subscriber.accepts(change.source())) {
+                    subscriber.offer(change);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    private record Change(TaskEO source, TaskEvent.Type type, TaskVO task) {
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final TaskFilterVO filter;
+        private final ArrayDeque<Change> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, TaskFilterVO filter) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.buffer = new ArrayDeque<>(Math.min(bufferSize, 16));
+        }
+
+        private boolean accepts(TaskEO task) {
+            if (filter == null) {
+                return true;
+            }
+            return (filter.getState() == null || filter.getState() == task.getState())
+                    && (!hasText(filter.getType()) || Objects.equals(filter.getType(), task.getType()))
+                    && (!hasText(filter.getAssignedTo()) || Objects.equals(filter.getAssignedTo(), task.getAssignedTo()));
+        }
+
+        private void offer(Change change) {
+            if (closed) {
+                return;
+            }
+            var overflow = false;
+            synchronized (buffer) {
+                if (buffer.size() == bufferSize) {
+                    if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                        overflow = true;
+                    } else {
+                        buffer.pollFirst();
+                        dropped.increment();
+                    }
+                }
+                if (!overflow) {
+                    buffer.addLast(change);
+                }
+            }
+            if (overflow) {
+                disconnected.increment();
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Change next;
+                while ((next = poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .id(next.task().getpKey() + "-" + next.task().getOl())
+                            .name(next.type().name())
+                            .data(next.task(), MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                LOGGER.debug("Subscriber is gone and removed: [{}]", e.getMessage());
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // A change may have been offered after the last poll and before the flag has been reset
+            if (hasBuffered()) {
+                scheduleDrain();
+            }
+        }
+
+        private Change poll() {
+            synchronized (buffer) {
+                return buffer.pollFirst();
+            }
+        }
+
+        private boolean hasBuffered() {
+            synchronized (buffer) {
+                return !buffer.isEmpty();
+            }
+        }
+
+        /*
+         * The emitter is completed on a sender thread, because completing waits for a send to a slow client that may still
+         * be in progress.
+         */
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            synchronized (buffer) {
+                buffer.clear();
+            }
+            try {
+                senders.execute(emitter::complete);
+            } catch (RejectedExecutionException e) {
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.openwms.common.tasks.api.TaskClaimVO;
+import org.openwms.common.tasks.api.TaskState;
+import org.openwms.common.tasks.api.TaskVO;
+import org.openwms.common.tasks.events.TaskBatchEvent;
+import org.openwms.common.tasks.events.TaskEvent;
+import org.openwms.common.tasks.impl.TaskEO;
+import org.openwms.common.tasks.impl.TaskService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * A TaskClaimWaiters parks claims of workers for which no Task is available, until a matching Task becomes claimable or the
+ * wait time expires.
+ * <p>
+ * Parked claims do not poll the database. They are woken by the committed {@link TaskEvent}s and {@link TaskBatchEvent}s of
+ * Tasks that are created or released. For each claimable Task the longest waiting claim of the same type is retried on a
+ * virtual thread. Only if that claim does not get a Task, because it is restricted to a TaskGroup for instance, the next one
+ * is tried. Tasks made claimable by other instances of the service are not noticed before the wait time expires.
+ *
+ * @author Heiko Scherrer
+ */
+@Component
+class TaskClaimWaiters {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskClaimWaiters.class);
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final ExecutorService claimers = Executors.newVirtualThreadPerTaskExecutor();
+    private final TaskService taskService;
+    private final Duration maxWait;
+
+    TaskClaimWaiters(TaskService taskService, MeterRegistry meterRegistry,
+            @Value("${owms.tasks.claim.max-wait:PT30S}") Duration maxWait) {
+        this.taskService = taskService;
+        this.maxWait = maxWait;
+        Gauge.builder("owms.tasks.claim.waiting", waiters, Queue::size)
+                .description("Number of claims waiting for a Task")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Claim the next Task and if none is available wait for one.
+     *
+     * @param claim Who claims and which Tasks are considered
+     * @param wait How long to wait at most, limited to {@code owms.tasks.claim.max-wait}
+     * @param onClaimed Builds the response of the claimed Task, it may be called on a thread without request context
+     * @return The result, set to the response of the claimed Task or to {@code 204 No Content} if the wait time expires
+     */
+    DeferredResult<ResponseEntity<TaskVO>> await(TaskClaimVO claim, Duration wait, Function<TaskVO, ResponseEntity<TaskVO>> onClaimed) {
+        var timeout = wait.isNegative() ? Duration.ZERO : (wait.compareTo(maxWait) > 0 ? maxWait : wait);
+        var result = new DeferredResult<ResponseEntity<TaskVO>>(Math.max(1, timeout.toMillis()), () -> ResponseEntity.noContent().build());
+        var waiter = new Waiter(claim, result, onClaimed);
+        result.onCompletion(() -> waiters.remove(waiter));
+        if (!timeout.isZero()) {
+            // Parked before the first attempt, so that a Task becoming claimable in between is not missed
+            waiters.add(waiter);
+        }
+        tryClaim(waiter);
+        if (timeout.isZero() && !result.hasResult()) {
+            result.setResult(ResponseEntity.noContent().build());
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEvent(TaskEvent event) {
+        wake(List.of(event.getSource()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEvent(TaskBatchEvent event) {
+        wake(event.getSource());
+    }
+
+    private void wake(List<TaskEO> tasks) {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        for (var task : tasks) {
+            if (task.getState() == TaskState.CREATED && task.getAssignedTo() == null) {
+                var type = task.getType();
+                try {
+                    claimers.execute(() -> claimForNext(type));
+                } catch (RejectedExecutionException e) {
+                    LOGGER.debug("Shutting down, waiting claims are not woken anymore");
+                    return;
+                }
+            }
+        }
+    }
+
+    /*
+     * One claimable Task wakes the waiting claims in the order they arrived, until one of them gets a Task.
+     */
+    private void claimForNext(String type) {
+        var candidates = new ArrayList<Waiter>();
+        for (var waiter : waiters) {
+            if (!hasText(waiter.claim.getType()) || Objects.equals(waiter.claim.getType(), type)) {
+                candidates.add(waiter);
+            }
+        }
+        for (var waiter : candidates) {
+            if (tryClaim(waiter)) {
+                return;
+            }
+        }
+    }
+
+    /*
+     * A claimed Task whose result has expired in between is released again, so that it is not lost for other workers.
+     */
+    private boolean tryClaim(Waiter waiter) {
+        waiter.lock.lock();
+        try {
+            if (waiter.result.isSetOrExpired()) {
+                return false;
+            }
+            var claimed = taskService.claimNext(waiter.claim);
+            if (claimed.isEmpty()) {
+                return false;
+            }
+            if (!waiter.result.setResult(waiter.onClaimed.apply(claimed.get()))) {
+                taskService.release(claimed.get().getpKey());
+                return false;
+            }
+            return true;
+        } catch (RuntimeException e) {
+            waiter.result.setErrorResult(e);
+            return false;
+        } finally {
+            waiter.lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        claimers.shutdownNow();
+        waiters.forEach(waiter -> waiter.result.setResult(ResponseEntity.noContent().build()));
+        waiters.clear();
+    }
+
+    private static final class Waiter {
+        private final TaskClaimVO claim;
+        private final DeferredResult<ResponseEntity<TaskVO>> result;
+        private final Function<TaskVO, ResponseEntity<TaskVO>> onClaimed;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private Waiter(TaskClaimVO claim, DeferredResult<ResponseEntity<TaskVO>> result, Function<TaskVO, ResponseEntity<TaskVO>> onClaimed) {
+            this.claim = claim;
+            this.result = result;
+            this.onClaimed = onClaimed;
+        }
+    }
+}
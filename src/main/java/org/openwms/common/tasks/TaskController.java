@@ -15,21 +15,49 @@
  */
 package org.openwms.common.tasks;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.servlet.http.HttpServletRequest;
 import org.ameba.http.MeasuredRestController;
+import org.openwms.common.tasks.api.TaskBatchTransitionVO;
+import org.openwms.common.tasks.api.TaskClaimVO;
+import org.openwms.common.tasks.api.TaskFilterVO;
+import org.openwms.common.tasks.api.TaskNodeVO;
+import org.openwms.common.tasks.api.TaskState;
+import org.openwms.common.tasks.api.TaskTransitionResultVO;
 import org.openwms.common.tasks.api.TaskVO;
 import org.openwms.common.tasks.impl.TaskService;
+import org.openwms.common.tasks.impl.TaskStateCounters;
 import org.openwms.core.http.AbstractWebController;
 import org.openwms.core.http.Index;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 
 import static org.openwms.common.tasks.api.TaskVO.MEDIA_TYPE;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
@@ -44,29 +72,139 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @MeasuredRestController
 public class TaskController extends AbstractWebController {
 
+    /** Response header that carries the continuation token of the next page. */
+    public static final String HEADER_CONTINUATION_TOKEN = "X-Continuation-Token";
     private final TaskService taskService;
+    private final TaskStateCounters taskStateCounters;
+    private final TaskChangeStream taskChangeStream;
+    private final TaskClaimWaiters taskClaimWaiters;
+    private final ObjectWriter ndjsonWriter;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskStateCounters taskStateCounters, TaskChangeStream taskChangeStream,
+            TaskClaimWaiters taskClaimWaiters, ObjectMapper objectMapper) {
         this.taskService = taskService;
+        this.taskStateCounters = taskStateCounters;
+        this.taskChangeStream = taskChangeStream;
+        this.taskClaimWaiters = taskClaimWaiters;
+        this.ndjsonWriter = objectMapper.writer()
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     @GetMapping(value = "/tasks", produces = MEDIA_TYPE)
-    public ResponseEntity<List<TaskVO>> findAll() {
-        var result = taskService.findAll();
-        if (result.isEmpty()) {
+    public ResponseEntity<List<TaskVO>> findAll(
+            TaskFilterVO filter,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            WebRequest request
+    ) {
+        var slice = taskService.findAll(filter, cursor, limit);
+        if (slice.getContent().isEmpty()) {
             return ResponseEntity.noContent().build();
         }
+        var result = slice.getContent();
+        var etag = pageETag(result, slice.getNextCursor());
+        if (request != null && request.checkNotModified(etag)) {
+            return null;
+        }
         result.forEach(this::addLinks);
-        return ResponseEntity.ok(result);
+        var response = ResponseEntity.ok().eTag(etag);
+        if (slice.hasNext()) {
+            var next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", slice.getNextCursor())
+                    .build()
+                    .toUriString();
+            response.header(HttpHeaders.LINK, Link.of(next, IanaLinkRelations.NEXT).toString());
+            response.header(HEADER_CONTINUATION_TOKEN, slice.getNextCursor());
+        }
+        return response.body(result);
     }
 
+    /**
+     * The Tasks are written asynchronously, an export is aborted after the {@code spring.mvc.async.request-timeout}.
+     */
+    @GetMapping(value = "/tasks/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = out -> {
+            try {
+                taskService.exportAll(vo -> {
+                    try {
+                        ndjsonWriter.writeValue(out, vo);
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Each committed change of a Task that matches the filter is pushed as an event named by the kind of change.
+     */
+    @GetMapping(value = "/tasks/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(TaskFilterVO filter) {
+        return taskChangeStream.subscribe(filter);
+    }
+
+    /**
+     * The counts are served from memory and do not touch the database.
+     */
+    @GetMapping(value = "/tasks/counts", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<TaskState, Map<String, Long>>> counts() {
+        return ResponseEntity.ok(taskStateCounters.snapshot());
+    }
+
+    /**
+     * The version is checked first, so an unchanged Task is answered with {@code 304 Not Modified} without loading it.
+     */
     @GetMapping(value = "/tasks/{pKey}", produces = MEDIA_TYPE)
-    public ResponseEntity<TaskVO> findByPKey(@PathVariable("pKey") String pKey) {
+    public ResponseEntity<TaskVO> findByPKey(@PathVariable("pKey") String pKey, WebRequest request) {
+        var version = taskService.findVersion(pKey);
+        if (version.isPresent() && request != null && request.checkNotModified(etag(pKey, version.get()))) {
+            return null;
+        }
         var result = taskService.findByPKeyOrThrow(pKey);
         addLinks(result);
+        return ResponseEntity.ok().eTag(etag(pKey, result.getOl())).body(result);
+    }
+
+    @GetMapping(value = "/tasks/{pKey}/subtree", produces = MEDIA_TYPE)
+    public ResponseEntity<List<TaskNodeVO>> findSubtree(
+            @PathVariable("pKey") String pKey,
+            @RequestParam(value = "depth", required = false) Integer depth
+    ) {
+        var result = taskService.findSubtree(pKey, depth);
+        result.forEach(node -> addLinks(node.getTask()));
         return ResponseEntity.ok(result);
     }
 
+    @GetMapping(value = "/tasks/{pKey}/ancestors", produces = MEDIA_TYPE)
+    public ResponseEntity<List<TaskNodeVO>> findAncestors(
+            @PathVariable("pKey") String pKey,
+            @RequestParam(value = "depth", required = false) Integer depth
+    ) {
+        var result = taskService.findAncestors(pKey, depth);
+        result.forEach(node -> addLinks(node.getTask()));
+        return ResponseEntity.ok(result);
+    }
+
+    private static String etag(String pKey, Object version) {
+        return "\"" + pKey + "-" + version + "\"";
+    }
+
+    private static String pageETag(List<TaskVO> page, String nextCursor) {
+        var digest = new StringBuilder();
+        page.forEach(vo -> digest.append(vo.getpKey()).append('-').append(vo.getOl()).append(';'));
+        digest.append(nextCursor);
+        return "\"" + DigestUtils.md5DigestAsHex(digest.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
     @PostMapping(value = "/tasks", consumes = MEDIA_TYPE, produces = MEDIA_TYPE)
     public ResponseEntity<TaskVO> create(@RequestBody TaskVO task, HttpServletRequest req) {
         var result = taskService.create(task);
@@ -74,8 +212,15 @@ public class TaskController extends AbstractWebController {
         return ResponseEntity.created(super.getLocationURIForCreatedResource(req, result.getpKey())).body(result);
     }
 
+    @PostMapping(value = "/tasks/batch", consumes = MEDIA_TYPE, produces = MEDIA_TYPE)
+    public ResponseEntity<List<TaskVO>> createAll(@RequestBody List<TaskVO> tasks) {
+        var result = taskService.createAll(tasks);
+        result.forEach(this::addLinks);
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
+
     private void addLinks(TaskVO vo) {
-        vo.add(linkTo(methodOn(TaskController.class).findByPKey(vo.getpKey())).withSelfRel());
+        vo.add(linkTo(methodOn(TaskController.class).findByPKey(vo.getpKey(), null)).withSelfRel());
     }
 
     @PutMapping(value = "/tasks", consumes = MEDIA_TYPE, produces = MEDIA_TYPE)
@@ -113,17 +258,82 @@ public class TaskController extends AbstractWebController {
         return ResponseEntity.ok(task);
     }
 
+    @PostMapping(value = "/tasks/claim-next", consumes = MEDIA_TYPE, produces = MEDIA_TYPE)
+    public ResponseEntity<TaskVO> claimNext(@RequestBody TaskClaimVO claim) {
+        var claimed = taskService.claimNext(claim);
+        if (claimed.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        var task = claimed.get();
+        addLinks(task);
+        return ResponseEntity.ok(task);
+    }
+
+    /**
+     * If no Task is available, the request is parked for up to {@code wait} seconds until a matching Task is created or
+     * released, instead of letting the client poll.
+     */
+    @PostMapping(value = "/tasks/claim-next", params = "wait", consumes = MEDIA_TYPE, produces = MEDIA_TYPE)
+    public DeferredResult<ResponseEntity<TaskVO>> awaitNext(@RequestBody TaskClaimVO claim, @RequestParam("wait") int wait) {
+        // The Task may be claimed on another thread without request context, so the base of the links is resolved here
+        var base = linkTo(TaskController.class).toUri().toString();
+        return taskClaimWaiters.await(claim, Duration.ofSeconds(wait), task -> {
+            task.add(Link.of(base + "/tasks/" + task.getpKey()).withSelfRel());
+            return ResponseEntity.ok(task);
+        });
+    }
+
+    @PostMapping(value = "/tasks/{pKey}/release", produces = MEDIA_TYPE)
+    public ResponseEntity<TaskVO> release(@PathVariable("pKey") String pKey) {
+        var task = taskService.release(pKey);
+        addLinks(task);
+        return ResponseEntity.ok(task);
+    }
+
+    @PostMapping(value = "/tasks/batch/start", consumes = MEDIA_TYPE, produces = MEDIA_TYPE)
+    public ResponseEntity<List<TaskTransitionResultVO>> startAll(@RequestBody TaskBatchTransitionVO selection) {
+        return ResponseEntity.ok(taskService.startAll(selection));
+    }
+
+    @PostMapping(value = "/tasks/batch/pause", consumes = MEDIA_TYPE, produces = MEDIA_TYPE)
+    public ResponseEntity<List<TaskTransitionResultVO>> pauseAll(@RequestBody TaskBatchTransitionVO selection) {
+        return ResponseEntity.ok(taskService.pauseAll(selection));
+    }
+
+    @PostMapping(value = "/tasks/batch/resume", consumes = MEDIA_TYPE, produces = MEDIA_TYPE)
+    public ResponseEntity<List<TaskTransitionResultVO>> resumeAll(@RequestBody TaskBatchTransitionVO selection) {
+        return ResponseEntity.ok(taskService.resumeAll(selection));
+    }
+
+    @PostMapping(value = "/tasks/batch/finish", consumes = MEDIA_TYPE, produces = MEDIA_TYPE)
+    public ResponseEntity<List<TaskTransitionResultVO>> finishAll(@RequestBody TaskBatchTransitionVO selection) {
+        return ResponseEntity.ok(taskService.finishAll(selection));
+    }
+
     @GetMapping("/tasks/index")
     public ResponseEntity<Index> index() {
         return ResponseEntity.ok(
                 new Index(
-                        linkTo(methodOn(TaskController.class).findAll()).withRel("tasks-findall"),
-                        linkTo(methodOn(TaskController.class).findByPKey("identifier")).withRel("tasks-findbypkey"),
+                        linkTo(methodOn(TaskController.class).findAll(null, null, null, null)).withRel("tasks-findall"),
+                        linkTo(methodOn(TaskController.class).findByPKey("identifier", null)).withRel("tasks-findbypkey"),
+                        linkTo(methodOn(TaskController.class).findSubtree("identifier", null)).withRel("tasks-findsubtree"),
+                        linkTo(methodOn(TaskController.class).findAncestors("identifier", null)).withRel("tasks-findancestors"),
+                        linkTo(methodOn(TaskController.class).export()).withRel("tasks-export"),
+                        linkTo(methodOn(TaskController.class).counts()).withRel("tasks-counts"),
+                        linkTo(methodOn(TaskController.class).stream(null)).withRel("tasks-stream"),
                         linkTo(methodOn(TaskController.class).create(new TaskVO(), null)).withRel("tasks-create"),
+                        linkTo(methodOn(TaskController.class).createAll(List.of())).withRel("tasks-create-batch"),
                         linkTo(methodOn(TaskController.class).start("identifier")).withRel("tasks-start"),
                         linkTo(methodOn(TaskController.class).pause("identifier")).withRel("tasks-pause"),
                         linkTo(methodOn(TaskController.class).resume("identifier")).withRel("tasks-resume"),
                         linkTo(methodOn(TaskController.class).finish("identifier")).withRel("tasks-finish"),
+                        linkTo(methodOn(TaskController.class).claimNext(new TaskClaimVO())).withRel("tasks-claim-next"),
+                        linkTo(methodOn(TaskController.class).awaitNext(new TaskClaimVO(), 30)).withRel("tasks-claim-next-wait"),
+                        linkTo(methodOn(TaskController.class).release("identifier")).withRel("tasks-release"),
+                        linkTo(methodOn(TaskController.class).startAll(new TaskBatchTransitionVO())).withRel("tasks-start-batch"),
+                        linkTo(methodOn(TaskController.class).pauseAll(new TaskBatchTransitionVO())).withRel("tasks-pause-batch"),
+                        linkTo(methodOn(TaskController.class).resumeAll(new TaskBatchTransitionVO())).withRel("tasks-resume-batch"),
+                        linkTo(methodOn(TaskController.class).finishAll(new TaskBatchTransitionVO())).withRel("tasks-finish-batch"),
                         linkTo(methodOn(TaskController.class).update(new TaskVO())).withRel("tasks-update")
                 )
         );
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks;
+
+import org.ameba.http.MeasuredRestController;
+import org.openwms.common.tasks.api.TaskGroupSummaryVO;
+import org.openwms.common.tasks.api.TaskVO;
+import org.openwms.common.tasks.impl.TaskGroupService;
+import org.openwms.core.http.AbstractWebController;
+import org.openwms.core.http.Index;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+import static org.openwms.common.tasks.TaskController.HEADER_CONTINUATION_TOKEN;
+import static org.openwms.common.tasks.api.TaskGroupSummaryVO.MEDIA_TYPE;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * A TaskGroupController serves the aggregated state of TaskGroups and their Tasks via REST.
+ *
+ * @author Heiko Scherrer
+ */
+@Validated
+@MeasuredRestController
+public class TaskGroupController extends AbstractWebController {
+
+    private final TaskGroupService taskGroupService;
+
+    public TaskGroupController(TaskGroupService taskGroupService) {
+        this.taskGroupService = taskGroupService;
+    }
+
+    @GetMapping(value = "/task-groups", produces = MEDIA_TYPE)
+    public ResponseEntity<List<TaskGroupSummaryVO>> findAll(
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "size", required = false) Integer size
+    ) {
+        var slice = taskGroupService.findAll(page, size);
+        if (!slice.hasContent()) {
+            return ResponseEntity.noContent().build();
+        }
+        var result = slice.getContent();
+        result.forEach(this::addLinks);
+        var response = ResponseEntity.ok();
+        if (slice.hasNext()) {
+            var next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("page", slice.getNumber() + 1)
+                    .build()
+                    .toUriString();
+            response.header(HttpHeaders.LINK, Link.of(next, IanaLinkRelations.NEXT).toString());
+        }
+        return response.body(result);
+    }
+
+    @GetMapping(value = "/task-groups/{pKey}", produces = MEDIA_TYPE)
+    public ResponseEntity<TaskGroupSummaryVO> findByPKey(@PathVariable("pKey") String pKey) {
+        var result = taskGroupService.findByPKeyOrThrow(pKey);
+        addLinks(result);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping(value = "/task-groups/{pKey}/tasks", produces = TaskVO.MEDIA_TYPE)
+    public ResponseEntity<List<TaskVO>> findTasks(
+            @PathVariable("pKey") String pKey,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        var slice = taskGroupService.findTasks(pKey, cursor, limit);
+        if (slice.getContent().isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        var result = slice.getContent();
+        result.forEach(vo -> vo.add(linkTo(methodOn(TaskController.class).findByPKey(vo.getpKey(), null)).withSelfRel()));
+        var response = ResponseEntity.ok();
+        if (slice.hasNext()) {
+            var next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", slice.getNextCursor())
+                    .build()
+                    .toUriString();
+            response.header(HttpHeaders.LINK, Link.of(next, IanaLinkRelations.NEXT).toString());
+            response.header(HEADER_CONTINUATION_TOKEN, slice.getNextCursor());
+        }
+        return response.body(result);
+    }
+
+    private void addLinks(TaskGroupSummaryVO vo) {
+        vo.add(linkTo(methodOn(TaskGroupController.class).findByPKey(vo.getpKey())).withSelfRel());
+        vo.add(linkTo(methodOn(TaskGroupController.class).findTasks(vo.getpKey(), null, null)).withRel("tasks"));
+    }
+
+    @GetMapping("/task-groups/index")
+    public ResponseEntity<Index> index() {
+        return ResponseEntity.ok(
+                new Index(
+                        linkTo(methodOn(TaskGroupController.class).findAll(null, null)).withRel("task-groups-findall"),
+                        linkTo(methodOn(TaskGroupController.class).findByPKey("identifier")).withRel("task-groups-findbypkey"),
+                        linkTo(methodOn(TaskGroupController.class).findTasks("identifier", null, null)).withRel("task-groups-findtasks")
+                )
+        );
+    }
+}
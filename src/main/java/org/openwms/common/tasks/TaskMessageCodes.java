@@ -30,6 +30,10 @@ public final class TaskMessageCodes {
     public static final String TASK_IS_NOT_PAUSED = "owms.common.tasks.isNotPaused";
     public static final String TASK_NOT_ACTIVE = "owms.common.tasks.notActive";
     public static final String TASK_ALREADY_FINISHED = "owms.common.tasks.alreadyFinished";
+    public static final String TASK_INVALID_CURSOR = "owms.common.tasks.invalidCursor";
+    public static final String TASK_BATCH_WITHOUT_SELECTION = "owms.common.tasks.batchWithoutSelection";
+    public static final String TASK_NOT_ASSIGNED = "owms.common.tasks.notAssigned";
+    public static final String TASK_GROUP_NOT_FOUND = "owms.common.tasks.groupNotFoundByPKey";
 
     private TaskMessageCodes() {}
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.api;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * A TaskBatchTransitionVO selects the Tasks a lifecycle change is applied to, either by their persistent keys or by a filter.
+ *
+ * @author Heiko Scherrer
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class TaskBatchTransitionVO implements Serializable {
+
+    /** The persistent keys of the Tasks to change. */
+    @JsonProperty("pKeys")
+    private List<String> pKeys = new ArrayList<>();
+
+    /** Alternatively, the criteria all Tasks to change must match. */
+    @JsonProperty("filter")
+    private TaskFilterVO filter;
+
+    public TaskBatchTransitionVO() {
+    }
+
+    public TaskBatchTransitionVO(List<String> pKeys) {
+        this.pKeys = pKeys;
+    }
+
+    public TaskBatchTransitionVO(TaskFilterVO filter) {
+        this.filter = filter;
+    }
+
+    public List<String> getpKeys() {
+        return pKeys;
+    }
+
+    public void setpKeys(List<String> pKeys) {
+        this.pKeys = pKeys;
+    }
+
+    public TaskFilterVO getFilter() {
+        return filter;
+    }
+
+    public void setFilter(TaskFilterVO filter) {
+        this.filter = filter;
+    }
+
+    public boolean hasPKeys() {
+        return pKeys != null && !pKeys.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * All fields.
+     */
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", TaskBatchTransitionVO.class.getSimpleName() + "[", "]")
+                .add("pKeys=" + pKeys)
+                .add("filter=" + filter)
+                .toString();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.api;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+
+import java.io.Serializable;
+import java.util.StringJoiner;
+
+/**
+ * A TaskClaimVO is the request of a worker to get the next unassigned Task assigned to itself.
+ *
+ * @author Heiko Scherrer
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class TaskClaimVO implements Serializable {
+
+    /** Who the claimed Task is assigned to. */
+    @NotBlank
+    @JsonProperty("assignee")
+    private String assignee;
+
+    /** Only claim a Task of this type. */
+    @JsonProperty("type")
+    private String type;
+
+    /** Only claim a Task of the TaskGroup with this persistent key. */
+    @JsonProperty("taskGroup")
+    private String taskGroup;
+
+    public TaskClaimVO() {
+    }
+
+    public TaskClaimVO(String assignee) {
+        this.assignee = assignee;
+    }
+
+    public String getAssignee() {
+        return assignee;
+    }
+
+    public void setAssignee(String assignee) {
+        this.assignee = assignee;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getTaskGroup() {
+        return taskGroup;
+    }
+
+    public void setTaskGroup(String taskGroup) {
+        this.taskGroup = taskGroup;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * All fields.
+     */
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", TaskClaimVO.class.getSimpleName() + "[", "]")
+                .add("assignee='" + assignee + "'")
+                .add("type='" + type + "'")
+                .add("taskGroup='" + taskGroup + "'")
+                .toString();
+    }
+}
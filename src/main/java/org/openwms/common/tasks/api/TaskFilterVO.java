@@ -0,0 +1,159 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.api;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.StringJoiner;
+
+import static org.openwms.common.tasks.TimeProvider.DATE_TIME_WITH_TIMEZONE;
+
+/**
+ * A TaskFilterVO holds the optional criteria to search for Tasks. All criteria that are set must match.
+ *
+ * @author Heiko Scherrer
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class TaskFilterVO implements Serializable {
+
+    /** The current state of the Task. */
+    @JsonProperty("state")
+    private TaskState state;
+
+    /** The type of the Task. */
+    @JsonProperty("type")
+    private String type;
+
+    /** Who the Task is assigned to. */
+    @JsonProperty("assignedTo")
+    private String assignedTo;
+
+    /** The persistent key of the TaskGroup the Task belongs to. */
+    @JsonProperty("taskGroup")
+    private String taskGroup;
+
+    /** Tasks started at or after. */
+    @JsonProperty("startedFrom")
+    @JsonFormat(pattern = DATE_TIME_WITH_TIMEZONE)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private ZonedDateTime startedFrom;
+
+    /** Tasks started before. */
+    @JsonProperty("startedTo")
+    @JsonFormat(pattern = DATE_TIME_WITH_TIMEZONE)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private ZonedDateTime startedTo;
+
+    /** Tasks finished at or after. */
+    @JsonProperty("finishedFrom")
+    @JsonFormat(pattern = DATE_TIME_WITH_TIMEZONE)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private ZonedDateTime finishedFrom;
+
+    /** Tasks finished before. */
+    @JsonProperty("finishedTo")
+    @JsonFormat(pattern = DATE_TIME_WITH_TIMEZONE)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private ZonedDateTime finishedTo;
+
+    public TaskState getState() {
+        return state;
+    }
+
+    public void setState(TaskState state) {
+        this.state = state;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getAssignedTo() {
+        return assignedTo;
+    }
+
+    public void setAssignedTo(String assignedTo) {
+        this.assignedTo = assignedTo;
+    }
+
+    public String getTaskGroup() {
+        return taskGroup;
+    }
+
+    public void setTaskGroup(String taskGroup) {
+        this.taskGroup = taskGroup;
+    }
+
+    public ZonedDateTime getStartedFrom() {
+        return startedFrom;
+    }
+
+    public void setStartedFrom(ZonedDateTime startedFrom) {
+        this.startedFrom = startedFrom;
+    }
+
+    public ZonedDateTime getStartedTo() {
+        return startedTo;
+    }
+
+    public void setStartedTo(ZonedDateTime startedTo) {
+        this.startedTo = startedTo;
+    }
+
+    public ZonedDateTime getFinishedFrom() {
+        return finishedFrom;
+    }
+
+    public void setFinishedFrom(ZonedDateTime finishedFrom) {
+        this.finishedFrom = finishedFrom;
+    }
+
+    public ZonedDateTime getFinishedTo() {
+        return finishedTo;
+    }
+
+    public void setFinishedTo(ZonedDateTime finishedTo) {
+        this.finishedTo = finishedTo;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * All fields.
+     */
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", TaskFilterVO.class.getSimpleName() + "[", "]")
+                .add("state=" + state)
+                .add("type='" + type + "'")
+                .add("assignedTo='" + assignedTo + "'")
+                .add("taskGroup='" + taskGroup + "'")
+                .add("startedFrom=" + startedFrom)
+                .add("startedTo=" + startedTo)
+                .add("finishedFrom=" + finishedFrom)
+                .add("finishedTo=" + finishedTo)
+                .toString();
+    }
+}
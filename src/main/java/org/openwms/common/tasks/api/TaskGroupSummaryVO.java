@@ -0,0 +1,173 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.api;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.ameba.http.AbstractBase;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * A TaskGroupSummaryVO is the aggregated state of all Tasks of a TaskGroup, without the Tasks themselves.
+ *
+ * @author Heiko Scherrer
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class TaskGroupSummaryVO extends AbstractBase<TaskGroupSummaryVO> {
+
+    public static final String MEDIA_TYPE = "application/vnd.openwms.common.task-group-summary-v1+json";
+
+    /** The persistent key of the TaskGroup. */
+    @JsonProperty("pKey")
+    private String pKey;
+
+    /** The name of the TaskGroup. */
+    @JsonProperty("name")
+    private String name;
+
+    @JsonProperty("description")
+    private String description;
+
+    /** The number of Tasks in the TaskGroup. */
+    @JsonProperty("total")
+    private long total;
+
+    /** The number of Tasks per state, states without Tasks are counted with 0. */
+    @JsonProperty("countsByState")
+    private Map<TaskState, Long> countsByState = new EnumMap<>(TaskState.class);
+
+    /** The percentage of finished Tasks, from 0 to 100. */
+    @JsonProperty("progress")
+    private int progress;
+
+    /** The persistent key of the earliest created Task that is not finished yet. */
+    @JsonProperty("oldestOpenTask")
+    private String oldestOpenTask;
+
+    /** The business identifier of the earliest created Task that is not finished yet. */
+    @JsonProperty("oldestOpenTaskId")
+    private String oldestOpenTaskId;
+
+    public String getpKey() {
+        return pKey;
+    }
+
+    public void setpKey(String pKey) {
+        this.pKey = pKey;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<TaskState, Long> getCountsByState() {
+        return countsByState;
+    }
+
+    public void setCountsByState(Map<TaskState, Long> countsByState) {
+        this.countsByState = countsByState;
+    }
+
+    public int getProgress() {
+        return progress;
+    }
+
+    public void setProgress(int progress) {
+        this.progress = progress;
+    }
+
+    public String getOldestOpenTask() {
+        return oldestOpenTask;
+    }
+
+    public void setOldestOpenTask(String oldestOpenTask) {
+        this.oldestOpenTask = oldestOpenTask;
+    }
+
+    public String getOldestOpenTaskId() {
+        return oldestOpenTaskId;
+    }
+
+    public void setOldestOpenTaskId(String oldestOpenTaskId) {
+        this.oldestOpenTaskId = oldestOpenTaskId;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * All fields.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TaskGroupSummaryVO that)) return false;
+        if (!super.equals(o)) return false;
+        return total == that.total && progress == that.progress && Objects.equals(pKey, that.pKey) && Objects.equals(name, that.name)
+                && Objects.equals(description, that.description) && Objects.equals(countsByState, that.countsByState)
+                && Objects.equals(oldestOpenTask, that.oldestOpenTask) && Objects.equals(oldestOpenTaskId, that.oldestOpenTaskId);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * All fields.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), pKey, name, description, total, countsByState, progress, oldestOpenTask, oldestOpenTaskId);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * All fields.
+     */
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", TaskGroupSummaryVO.class.getSimpleName() + "[", "]")
+                .add("pKey='" + pKey + "'")
+                .add("name='" + name + "'")
+                .add("total=" + total)
+                .add("countsByState=" + countsByState)
+                .add("progress=" + progress)
+                .add("oldestOpenTask='" + oldestOpenTask + "'")
+                .toString();
+    }
+}
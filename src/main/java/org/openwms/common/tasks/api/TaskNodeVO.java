@@ -0,0 +1,77 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.api;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+import java.util.StringJoiner;
+
+/**
+ * A TaskNodeVO is one Task within a hierarchy of Tasks.
+ *
+ * @author Heiko Scherrer
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class TaskNodeVO implements Serializable {
+
+    /** The distance to the Task the hierarchy has been requested for, that Task itself has depth 0. */
+    @JsonProperty("depth")
+    private final int depth;
+
+    /** The persistent key of the parent Task, if the parent is part of the same hierarchy result. */
+    @JsonProperty("parent")
+    private final String parent;
+
+    /** The Task. */
+    @JsonProperty("task")
+    private final TaskVO task;
+
+    @JsonCreator
+    public TaskNodeVO(@JsonProperty("depth") int depth, @JsonProperty("parent") String parent, @JsonProperty("task") TaskVO task) {
+        this.depth = depth;
+        this.parent = parent;
+        this.task = task;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public String getParent() {
+        return parent;
+    }
+
+    public TaskVO getTask() {
+        return task;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * All fields.
+     */
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", TaskNodeVO.class.getSimpleName() + "[", "]")
+                .add("depth=" + depth)
+                .add("parent='" + parent + "'")
+                .add("task=" + task)
+                .toString();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.api;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * A TaskTransitionResultVO is the outcome of a lifecycle change of one Task within a batch.
+ *
+ * @author Heiko Scherrer
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class TaskTransitionResultVO implements Serializable {
+
+    /** The persistent key of the Task. */
+    @JsonProperty("pKey")
+    private final String pKey;
+
+    /** Whether the Task is in the requested state afterwards. */
+    @JsonProperty("accepted")
+    private final boolean accepted;
+
+    /** In case the Task has been rejected, the unique identifier of the reason. */
+    @JsonProperty("messageKey")
+    private final String messageKey;
+
+    /** In case the Task has been rejected, the translated reason. */
+    @JsonProperty("message")
+    private final String message;
+
+    @JsonCreator
+    public TaskTransitionResultVO(@JsonProperty("pKey") String pKey, @JsonProperty("accepted") boolean accepted,
+            @JsonProperty("messageKey") String messageKey, @JsonProperty("message") String message) {
+        this.pKey = pKey;
+        this.accepted = accepted;
+        this.messageKey = messageKey;
+        this.message = message;
+    }
+
+    public static TaskTransitionResultVO accepted(String pKey) {
+        return new TaskTransitionResultVO(pKey, true, null, null);
+    }
+
+    public static TaskTransitionResultVO rejected(String pKey, String messageKey, String message) {
+        return new TaskTransitionResultVO(pKey, false, messageKey, message);
+    }
+
+    public String getpKey() {
+        return pKey;
+    }
+
+    public boolean isAccepted() {
+        return accepted;
+    }
+
+    public String getMessageKey() {
+        return messageKey;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * All fields.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TaskTransitionResultVO that)) return false;
+        return accepted == that.accepted && Objects.equals(pKey, that.pKey) && Objects.equals(messageKey, that.messageKey) && Objects.equals(message, that.message);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * All fields.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(pKey, accepted, messageKey, message);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * All fields.
+     */
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", TaskTransitionResultVO.class.getSimpleName() + "[", "]")
+                .add("pKey='" + pKey + "'")
+                .add("accepted=" + accepted)
+                .add("messageKey='" + messageKey + "'")
+                .toString();
+    }
+}
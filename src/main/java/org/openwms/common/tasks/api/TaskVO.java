@@ -53,6 +53,22 @@ public class TaskVO extends AbstractBase<TaskVO> {
     @JsonProperty("state")
     private TaskState state;
 
+    /** Higher values are more urgent, defaults to 0. */
+    @JsonProperty("priority")
+    private Integer priority;
+
+    /** When the Task must be done at the latest. */
+    @JsonProperty("dueAt")
+    @JsonFormat(pattern = DATE_TIME_WITH_TIMEZONE)
+    private ZonedDateTime dueAt;
+
+    @JsonProperty("assignedTo")
+    private String assignedTo;
+
+    @JsonProperty("assignedAt")
+    @JsonFormat(pattern = DATE_TIME_WITH_TIMEZONE)
+    private ZonedDateTime assignedAt;
+
     @JsonProperty("startedAt")
     @JsonFormat(pattern = DATE_TIME_WITH_TIMEZONE)
     private ZonedDateTime startedAt;
@@ -101,6 +117,38 @@ public class TaskVO extends AbstractBase<TaskVO> {
         this.state = state;
     }
 
+    public Integer getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Integer priority) {
+        this.priority = priority;
+    }
+
+    public ZonedDateTime getDueAt() {
+        return dueAt;
+    }
+
+    public void setDueAt(ZonedDateTime dueAt) {
+        this.dueAt = dueAt;
+    }
+
+    public String getAssignedTo() {
+        return assignedTo;
+    }
+
+    public void setAssignedTo(String assignedTo) {
+        this.assignedTo = assignedTo;
+    }
+
+    public ZonedDateTime getAssignedAt() {
+        return assignedAt;
+    }
+
+    public void setAssignedAt(ZonedDateTime assignedAt) {
+        this.assignedAt = assignedAt;
+    }
+
     public ZonedDateTime getStartedAt() {
         return startedAt;
     }
@@ -128,7 +176,7 @@ public class TaskVO extends AbstractBase<TaskVO> {
         if (!(o instanceof TaskVO)) return false;
         if (!super.equals(o)) return false;
         TaskVO taskVO = (TaskVO) o;
-        return Objects.equals(pKey, taskVO.pKey) && Objects.equals(taskId, taskVO.taskId) && Objects.equals(description, taskVO.description) && Objects.equals(type, taskVO.type) && state == taskVO.state && Objects.equals(startedAt, taskVO.startedAt) && Objects.equals(finishedAt, taskVO.finishedAt);
+        return Objects.equals(pKey, taskVO.pKey) && Objects.equals(taskId, taskVO.taskId) && Objects.equals(description, taskVO.description) && Objects.equals(type, taskVO.type) && state == taskVO.state && Objects.equals(priority, taskVO.priority) && Objects.equals(dueAt, taskVO.dueAt) && Objects.equals(assignedTo, taskVO.assignedTo) && Objects.equals(assignedAt, taskVO.assignedAt) && Objects.equals(startedAt, taskVO.startedAt) && Objects.equals(finishedAt, taskVO.finishedAt);
     }
 
     /**
@@ -138,6 +186,6 @@ public class TaskVO extends AbstractBase<TaskVO> {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), pKey, taskId, description, type, state, startedAt, finishedAt);
+        return Objects.hash(super.hashCode(), pKey, taskId, description, type, state, priority, dueAt, assignedTo, assignedAt, startedAt, finishedAt);
     }
 }
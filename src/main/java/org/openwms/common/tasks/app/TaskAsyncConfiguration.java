@@ -15,6 +15,7 @@
  */
 package org.openwms.common.tasks.app;
 
+import org.openwms.common.tasks.events.TaskMOMessageConverter;
 import org.openwms.core.SpringProfiles;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,6 +70,14 @@ class TaskAsyncConfiguration {
         return messageConverter;
     }
 
+    @ConditionalOnExpression("'${owms.tasks.serialization}'=='binary'")
+    @Bean
+    MessageConverter binaryMessageConverter() {
+        TaskMOMessageConverter messageConverter = new TaskMOMessageConverter();
+        BOOT_LOGGER.info("Using compact binary serialization over AMQP");
+        return messageConverter;
+    }
+
     @Bean
     RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory,
             MessageConverter messageConverter) {
@@ -24,15 +24,19 @@ import org.ameba.i18n.AbstractSpringTranslator;
 import org.ameba.i18n.Translator;
 import org.ameba.integration.EnableMultiTenancy;
 import org.ameba.system.NestedReloadableResourceBundleMessageSource;
+import org.openwms.common.tasks.events.TaskCacheEvictionEvent;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cloud.bus.jackson.RemoteApplicationEventScan;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.filter.CorsFilter;
 import org.springframework.web.servlet.LocaleResolver;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
@@ -54,6 +58,9 @@ import java.util.Properties;
 @EnableIdentityAwareness
 @EnableJpaAuditing
 @EnableMultiTenancy(enabled = false)
+@EnableScheduling
+@EnableCaching
+@RemoteApplicationEventScan(basePackageClasses = TaskCacheEvictionEvent.class)
 public class TaskModuleConfiguration implements WebMvcConfigurer {
 
     @Override
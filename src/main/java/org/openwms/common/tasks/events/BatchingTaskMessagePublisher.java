@@ -0,0 +1,152 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.events;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.ameba.app.SpringProfiles;
+import org.openwms.common.tasks.events.ConfirmedBatchSender.Pending;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A BatchingTaskMessagePublisher collects messages for a short time window and sends them in batches on one channel with
+ * publisher confirms. Instead of one round trip per message it waits once per batch for all confirms, so throughput grows with
+ * the burst size. A batch that is not confirmed is retried by the sending thread with a backoff, callers only enqueue and are
+ * not blocked unless the queue is full.
+ * <p>
+ * All routing keys share one queue and each batch is sent in order, so the events of a Task keep their order. Because a batch
+ * is sent again as a whole, messages are delivered at least once. Messages published after the publisher has been stopped are
+ * sent synchronously by the caller.
+ *
+ * @author Heiko Scherrer
+ */
+@Profile(SpringProfiles.ASYNCHRONOUS_PROFILE)
+@ConditionalOnProperty(name = "owms.tasks.publishing.mode", havingValue = "batching")
+@Component
+class BatchingTaskMessagePublisher implements TaskMessagePublisher, SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingTaskMessagePublisher.class);
+    private final ConfirmedBatchSender batchSender;
+    private final int batchSize;
+    private final Duration window;
+    private final Duration confirmTimeout;
+    private final BlockingQueue<Pending> queue;
+    private volatile boolean running;
+    private volatile boolean stopped;
+    private Thread sender;
+
+    BatchingTaskMessagePublisher(RabbitTemplate rabbitTemplate, MeterRegistry meterRegistry,
+            @Value("${owms.tasks.exchange-name}") String exchangeName,
+            @Value("${owms.tasks.publishing.batch-size:100}") int batchSize,
+            @Value("${owms.tasks.publishing.window:PT0.05S}") Duration window,
+            @Value("${owms.tasks.publishing.confirm-timeout:PT5S}") Duration confirmTimeout,
+            @Value("${owms.tasks.publishing.capacity:10000}") int capacity) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size of the BatchingTaskMessagePublisher must be greater than 0");
+        }
+        this.batchSender = new ConfirmedBatchSender(rabbitTemplate, meterRegistry, exchangeName, confirmTimeout);
+        this.batchSize = batchSize;
+        this.window = window;
+        this.confirmTimeout = confirmTimeout;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        batchSender.monitor(queue, Tags.empty());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Only blocks when the configured capacity of not yet sent messages is exhausted. After the publisher has been stopped the
+     * message is sent and confirmed before the method returns.
+     */
+    @Override
+    public void publish(String routingKey, TaskMO message) {
+        try {
+            queue.put(new Pending(routingKey, message));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while enqueuing a message with routing key [%s]".formatted(routingKey), e);
+        }
+        if (stopped) {
+            // Nobody drains the queue anymore
+            batchSender.drainAndSend(queue);
+        }
+    }
+
+    @Override
+    public void start() {
+        stopped = false;
+        running = true;
+        sender = Thread.ofPlatform().name("task-publisher").daemon()
+                .start(() -> batchSender.sendLoop(queue, batchSize, () -> running, this::collect));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The sending thread sends all queued messages before it ends. If it is still retrying after twice the
+     * {@code confirm-timeout} it is interrupted and makes one last attempt, so that no message overtakes another one.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        var ended = batchSender.awaitTermination(List.of(sender), confirmTimeout.multipliedBy(2));
+        if (!ended) {
+            // Sending now would overtake the messages the sender still holds
+            return;
+        }
+        stopped = true;
+        try {
+            batchSender.drainAndSend(queue);
+        } catch (RuntimeException e) {
+            LOGGER.error("Stopped with messages that have not been sent: [{}]", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void collect(List<Pending> batch) throws InterruptedException {
+        var first = queue.poll(window.toMillis(), TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        var deadline = System.nanoTime() + window.toNanos();
+        while (batch.size() < batchSize) {
+            var remaining = deadline - System.nanoTime();
+            var next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+}
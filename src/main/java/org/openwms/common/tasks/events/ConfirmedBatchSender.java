@@ -0,0 +1,254 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A ConfirmedBatchSender drains a queue of messages in batches for the asynchronous {@link TaskMessagePublisher}s. Each batch is
+ * sent on one channel and the publisher confirms are awaited once per batch. A batch that is not confirmed is sent again as a
+ * whole after a growing backoff, so messages are delivered at least once and keep the order of the queue.
+ * <p>
+ * No monitor is held while sending, so that virtual threads that publish after the publisher has been stopped are not pinned.
+ *
+ * @author Heiko Scherrer
+ */
+class ConfirmedBatchSender {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfirmedBatchSender.class);
+    private static final Duration FIRST_BACKOFF = Duration.ofMillis(500);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(15);
+    private final RabbitTemplate rabbitTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String exchangeName;
+    private final Duration confirmTimeout;
+    private final Counter published;
+    private final Counter failures;
+    private final DistributionSummary batchSizes;
+    private final Timer latency;
+    private final Lock drainLock = new ReentrantLock();
+
+    ConfirmedBatchSender(RabbitTemplate rabbitTemplate, MeterRegistry meterRegistry, String exchangeName, Duration confirmTimeout) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.meterRegistry = meterRegistry;
+        this.exchangeName = exchangeName;
+        this.confirmTimeout = confirmTimeout;
+        this.published = Counter.builder("owms.tasks.publishing.published")
+                .description("Number of confirmed messages")
+                .register(meterRegistry);
+        this.failures = Counter.builder("owms.tasks.publishing.failures")
+                .description("Number of batches that have not been confirmed")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("owms.tasks.publishing.batch.size")
+                .description("Number of messages sent per batch")
+                .register(meterRegistry);
+        this.latency = Timer.builder("owms.tasks.publishing.latency")
+                .description("Time from enqueuing a message until it has been confirmed")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A message waiting to be sent.
+     *
+     * @param routingKey The routing key
+     * @param message The message
+     * @param enqueuedAt When the message has been queued, in nanoseconds of {@link System#nanoTime()}
+     */
+    record Pending(String routingKey, TaskMO message, long enqueuedAt) {
+
+        Pending(String routingKey, TaskMO message) {
+            this(routingKey, message, System.nanoTime());
+        }
+    }
+
+    /**
+     * Takes the next batch from a queue.
+     */
+    @FunctionalInterface
+    interface Collector {
+
+        /**
+         * Add the next messages to the empty batch, leave it empty if there is nothing to send for now.
+         *
+         * @param batch The batch to fill
+         * @throws InterruptedException if interrupted while waiting for messages
+         */
+        void collect(List<Pending> batch) throws InterruptedException;
+    }
+
+    /**
+     * Expose the number of queued messages.
+     *
+     * @param queue The queue
+     * @param tags Tags to tell several queues apart
+     */
+    void monitor(BlockingQueue<Pending> queue, Tags tags) {
+        Gauge.builder("owms.tasks.publishing.queued", queue, BlockingQueue::size)
+                .description("Number of messages waiting to be sent")
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Send the batches of a queue until the publisher is no longer running and all queued messages have been sent. If the
+     * sending thread is interrupted, the current batch and all queued messages are sent once more in their order and the
+     * method returns, whether they are confirmed or not.
+     *
+     * @param queue The queue to drain
+     * @param batchSize The maximum number of messages per batch
+     * @param running Whether the publisher is still running
+     * @param collector Takes the next batch from the queue
+     */
+    void sendLoop(BlockingQueue<Pending> queue, int batchSize, BooleanSupplier running, Collector collector) {
+        var batch = new ArrayList<Pending>(batchSize);
+        var backoff = Duration.ZERO;
+        while (running.getAsBoolean() || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    collector.collect(batch);
+                }
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                if (!backoff.isZero()) {
+                    TimeUnit.MILLISECONDS.sleep(backoff.toMillis());
+                }
+                send(batch);
+                batch.clear();
+                backoff = Duration.ZERO;
+            } catch (InterruptedException e) {
+                sendRemaining(batch, queue);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                if (Thread.interrupted()) {
+                    sendRemaining(batch, queue);
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                failures.increment();
+                backoff = backoff.isZero() ? FIRST_BACKOFF : min(backoff.multipliedBy(2), MAX_BACKOFF);
+                LOGGER.warn("Batch of [{}] messages has not been confirmed and is sent again in [{}]ms: [{}]", batch.size(),
+                        backoff.toMillis(), e.getMessage());
+            }
+        }
+    }
+
+    private void sendRemaining(List<Pending> batch, BlockingQueue<Pending> queue) {
+        queue.drainTo(batch);
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            send(batch);
+        } catch (RuntimeException e) {
+            LOGGER.error("Stopped with [{}] messages that have not been sent: [{}]", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Wait until the threads that run the {@link #sendLoop} have sent all queued messages. Threads that are still sending
+     * after the grace period are interrupted, so that they make one last attempt.
+     *
+     * @param workers The sending threads
+     * @param grace How long to wait before the threads are interrupted
+     * @return {@literal true} if all threads have ended
+     */
+    boolean awaitTermination(List<Thread> workers, Duration grace) {
+        try {
+            var deadline = System.nanoTime() + grace.toNanos();
+            for (var worker : workers) {
+                var remaining = deadline - System.nanoTime();
+                if (remaining > 0) {
+                    worker.join(Duration.ofNanos(remaining));
+                }
+            }
+            for (var worker : workers) {
+                if (worker.isAlive()) {
+                    worker.interrupt();
+                }
+            }
+            for (var worker : workers) {
+                // The last attempt waits for the confirms once more
+                if (!worker.join(confirmTimeout.multipliedBy(2))) {
+                    LOGGER.error("Thread [{}] has not ended, its queued messages are not sent", worker.getName());
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Send all queued messages on the calling thread, used when the thread that drains the queue has ended. Concurrent callers
+     * send one after the other, so that the messages keep their order.
+     *
+     * @param queue The queue to drain
+     */
+    void drainAndSend(BlockingQueue<Pending> queue) {
+        drainLock.lock();
+        try {
+            var batch = new ArrayList<Pending>(queue.size());
+            queue.drainTo(batch);
+            if (!batch.isEmpty()) {
+                send(batch);
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        rabbitTemplate.invoke(operations -> {
+            for (var pending : batch) {
+                operations.convertAndSend(exchangeName, pending.routingKey(), pending.message());
+            }
+            operations.waitForConfirmsOrDie(confirmTimeout.toMillis());
+            return null;
+        });
+        var now = System.nanoTime();
+        for (var pending : batch) {
+            latency.record(now - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+        published.increment(batch.size());
+        batchSizes.record(batch.size());
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.events;
+
+import org.ameba.app.SpringProfiles;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * A DirectTaskMessagePublisher sends each message synchronously.
+ *
+ * @author Heiko Scherrer
+ */
+@Profile(SpringProfiles.ASYNCHRONOUS_PROFILE)
+@ConditionalOnProperty(name = "owms.tasks.publishing.mode", havingValue = "direct", matchIfMissing = true)
+@Component
+class DirectTaskMessagePublisher implements TaskMessagePublisher {
+
+    private final AmqpTemplate amqpTemplate;
+    private final String exchangeName;
+
+    DirectTaskMessagePublisher(AmqpTemplate amqpTemplate, @Value("${owms.tasks.exchange-name}") String exchangeName) {
+        this.amqpTemplate = amqpTemplate;
+        this.exchangeName = exchangeName;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void publish(String routingKey, TaskMO message) {
+        amqpTemplate.convertAndSend(exchangeName, routingKey, message);
+    }
+}
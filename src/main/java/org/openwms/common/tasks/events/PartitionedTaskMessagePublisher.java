@@ -0,0 +1,181 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.ameba.app.SpringProfiles;
+import org.openwms.common.tasks.events.ConfirmedBatchSender.Pending;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A PartitionedTaskMessagePublisher decouples sending from the calling thread. Messages are put into one of N bounded queues,
+ * chosen by the persistent key of the Task, and each queue is drained by its own worker. All messages of one Task go through
+ * the same queue and keep their order, while the messages of different Tasks are sent in parallel. A worker sends all messages
+ * it finds in its queue on one channel and waits once for the publisher confirms; a batch that is not confirmed is sent again
+ * after a backoff, so messages are delivered at least once. Messages published after the publisher has been stopped are sent
+ * synchronously by the caller.
+ * <p>
+ * When a queue is full the caller either waits up to {@code offer-timeout} or the message is dropped immediately, depending on
+ * {@code owms.tasks.publishing.overflow}. A message that does not fit into the queue in time is dropped and logged.
+ *
+ * @author Heiko Scherrer
+ */
+@Profile(SpringProfiles.ASYNCHRONOUS_PROFILE)
+@ConditionalOnProperty(name = "owms.tasks.publishing.mode", havingValue = "partitioned")
+@Component
+class PartitionedTaskMessagePublisher implements TaskMessagePublisher, SmartLifecycle {
+
+    /** What happens when the queue of a partition is full. */
+    enum Overflow {
+        /** Wait up to the offer timeout for free space and drop the message afterwards. */
+        BLOCK,
+        /** Drop the message immediately. */
+        DROP
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedTaskMessagePublisher.class);
+    private final ConfirmedBatchSender batchSender;
+    private final int batchSize;
+    private final Duration confirmTimeout;
+    private final Overflow overflow;
+    private final Duration offerTimeout;
+    private final List<BlockingQueue<Pending>> partitions;
+    private final Counter dropped;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+    private volatile boolean stopped;
+
+    PartitionedTaskMessagePublisher(RabbitTemplate rabbitTemplate, MeterRegistry meterRegistry,
+            @Value("${owms.tasks.exchange-name}") String exchangeName,
+            @Value("${owms.tasks.publishing.workers:4}") int workers,
+            @Value("${owms.tasks.publishing.batch-size:100}") int batchSize,
+            @Value("${owms.tasks.publishing.confirm-timeout:PT5S}") Duration confirmTimeout,
+            @Value("${owms.tasks.publishing.capacity:10000}") int capacity,
+            @Value("${owms.tasks.publishing.overflow:BLOCK}") Overflow overflow,
+            @Value("${owms.tasks.publishing.offer-timeout:PT1S}") Duration offerTimeout) {
+        if (workers < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("The number of workers and the batch size of the PartitionedTaskMessagePublisher must be greater than 0");
+        }
+        this.batchSender = new ConfirmedBatchSender(rabbitTemplate, meterRegistry, exchangeName, confirmTimeout);
+        this.batchSize = batchSize;
+        this.confirmTimeout = confirmTimeout;
+        this.overflow = overflow;
+        this.offerTimeout = offerTimeout;
+        this.partitions = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            var queue = new ArrayBlockingQueue<Pending>(Math.max(1, capacity / workers));
+            partitions.add(queue);
+            batchSender.monitor(queue, Tags.of("partition", String.valueOf(i)));
+        }
+        this.dropped = Counter.builder("owms.tasks.publishing.dropped")
+                .description("Number of messages dropped because the queue has been full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Returns as soon as the message is queued. After the publisher has been stopped the message is sent and confirmed before
+     * the method returns.
+     */
+    @Override
+    public void publish(String routingKey, TaskMO message) {
+        var queue = partitions.get(Math.floorMod(message.getpKey() == null ? 0 : message.getpKey().hashCode(), partitions.size()));
+        var pending = new Pending(routingKey, message);
+        var queued = false;
+        try {
+            queued = overflow == Overflow.BLOCK
+                    ? queue.offer(pending, offerTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    : queue.offer(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queued) {
+            dropped.increment();
+            LOGGER.error("Queue is full, message with routing key [{}] for Task [{}] is dropped", routingKey, message.getpKey());
+        } else if (stopped) {
+            // Nobody drains the queue anymore
+            batchSender.drainAndSend(queue);
+        }
+    }
+
+    @Override
+    public void start() {
+        stopped = false;
+        running = true;
+        for (int i = 0; i < partitions.size(); i++) {
+            var queue = partitions.get(i);
+            workers.add(Thread.ofPlatform().name("task-publisher-" + i).daemon()
+                    .start(() -> batchSender.sendLoop(queue, batchSize, () -> running, batch -> collect(queue, batch))));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Each worker sends the messages of its queue before it ends. A worker that is still retrying after twice the
+     * {@code confirm-timeout} is interrupted and makes one last attempt, so that no message overtakes another one of the same
+     * Task.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        var ended = batchSender.awaitTermination(workers, confirmTimeout.multipliedBy(2));
+        workers.clear();
+        if (!ended) {
+            // Sending now would overtake the messages the worker still holds
+            return;
+        }
+        stopped = true;
+        for (var queue : partitions) {
+            try {
+                batchSender.drainAndSend(queue);
+            } catch (RuntimeException e) {
+                LOGGER.error("Stopped with messages that have not been sent: [{}]", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void collect(BlockingQueue<Pending> queue, List<Pending> batch) throws InterruptedException {
+        var first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.events;
+
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+import java.util.List;
+
+/**
+ * A ReferenceDataEvictionEvent is sent over the bus to all instances of the service to remove changed entities from the
+ * second-level cache.
+ *
+ * @author Heiko Scherrer
+ */
+public class ReferenceDataEvictionEvent extends RemoteApplicationEvent {
+
+    private String entityType;
+    private List<Long> pks;
+
+    /** Dear Jackson... */
+    protected ReferenceDataEvictionEvent() {
+    }
+
+    public ReferenceDataEvictionEvent(Object source, String originService, Destination destination, String entityType, List<Long> pks) {
+        super(source, originService, destination);
+        this.entityType = entityType;
+        this.pks = List.copyOf(pks);
+    }
+
+    /**
+     * Get the fully qualified class name of the changed entities.
+     *
+     * @return The class name
+     */
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public List<Long> getPks() {
+        return pks;
+    }
+}
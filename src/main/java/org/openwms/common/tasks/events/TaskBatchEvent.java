@@ -0,0 +1,67 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.events;
+
+import org.openwms.common.tasks.api.TaskState;
+import org.openwms.common.tasks.impl.TaskEO;
+import org.openwms.core.event.RootApplicationEvent;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A TaskBatchEvent signals that the same lifecycle change happened to a batch of Tasks at once.
+ *
+ * @author Heiko Scherrer
+ */
+public class TaskBatchEvent extends RootApplicationEvent {
+
+    private final TaskEvent.Type type;
+    private final Map<String, TaskState> previousStates;
+
+    public TaskBatchEvent(List<TaskEO> source, TaskEvent.Type type) {
+        this(source, type, Map.of());
+    }
+
+    public TaskBatchEvent(List<TaskEO> source, TaskEvent.Type type, Map<String, TaskState> previousStates) {
+        super(List.copyOf(source));
+        if (type == null) {
+            throw new IllegalArgumentException("Type must not be null");
+        }
+        this.type = type;
+        this.previousStates = Map.copyOf(previousStates);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<TaskEO> getSource() {
+        return (List<TaskEO>) super.getSource();
+    }
+
+    public TaskEvent.Type getType() {
+        return type;
+    }
+
+    /**
+     * Get the state of a Task of the batch before the change.
+     *
+     * @param pKey The persistent key of the Task
+     * @return The state or {@literal null} if the Task has just been created
+     */
+    public TaskState getPreviousState(String pKey) {
+        return previousStates.get(pKey);
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.events;
+
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+import java.util.List;
+
+/**
+ * A TaskCacheEvictionEvent is sent over the bus to all instances of the service to remove changed Tasks from their caches.
+ *
+ * @author Heiko Scherrer
+ */
+public class TaskCacheEvictionEvent extends RemoteApplicationEvent {
+
+    private List<String> pKeys;
+
+    /** Dear Jackson... */
+    protected TaskCacheEvictionEvent() {
+    }
+
+    public TaskCacheEvictionEvent(Object source, String originService, Destination destination, List<String> pKeys) {
+        super(source, originService, destination);
+        this.pKeys = List.copyOf(pKeys);
+    }
+
+    public List<String> getpKeys() {
+        return pKeys;
+    }
+}
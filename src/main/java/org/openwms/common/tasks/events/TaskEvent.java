@@ -15,6 +15,7 @@
  */
 package org.openwms.common.tasks.events;
 
+import org.openwms.common.tasks.api.TaskState;
 import org.openwms.common.tasks.impl.TaskEO;
 import org.openwms.core.event.RootApplicationEvent;
 
@@ -26,9 +27,10 @@ import org.openwms.core.event.RootApplicationEvent;
 public class TaskEvent extends RootApplicationEvent {
 
     private Type type;
+    private TaskState previousState;
 
     public enum Type {
-        CREATED, STARTED, PAUSED, RESUMED, FINISHED
+        CREATED, STARTED, PAUSED, RESUMED, FINISHED, ASSIGNED, RELEASED
     }
 
     public TaskEvent(TaskEO source, Type type) {
@@ -39,6 +41,11 @@ public class TaskEvent extends RootApplicationEvent {
         this.type = type;
     }
 
+    public TaskEvent(TaskEO source, Type type, TaskState previousState) {
+        this(source, type);
+        this.previousState = previousState;
+    }
+
     @Override
     public TaskEO getSource() {
         return (TaskEO) super.getSource();
@@ -47,4 +54,13 @@ public class TaskEvent extends RootApplicationEvent {
     public Type getType() {
         return type;
     }
+
+    /**
+     * Get the state of the Task before the change.
+     *
+     * @return The state or {@literal null} if the Task has just been created
+     */
+    public TaskState getPreviousState() {
+        return previousState;
+    }
 }
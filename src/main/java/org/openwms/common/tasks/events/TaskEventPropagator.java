@@ -20,31 +20,33 @@ import org.ameba.app.SpringProfiles;
 import org.openwms.common.tasks.impl.TaskMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.core.AmqpTemplate;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.Locale;
+
 /**
- * A TaskEventPropagator.
+ * A TaskEventPropagator publishes the Task changes after the transaction has committed. It is replaced by the
+ * {@link TaskOutboxWriter} and {@link TaskOutboxRelay} when the outbox is enabled. The caller is only decoupled from the
+ * broker if the {@link TaskMessagePublisher} sends asynchronously, like the {@link PartitionedTaskMessagePublisher}.
  *
  * @author Heiko Scherrer
  */
 @Profile(SpringProfiles.ASYNCHRONOUS_PROFILE)
+@ConditionalOnProperty(name = "owms.tasks.outbox.enabled", havingValue = "false", matchIfMissing = true)
 @Component
 class TaskEventPropagator {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TaskEventPropagator.class);
     private final TaskMapper mapper;
-    private final AmqpTemplate amqpTemplate;
-    private final String exchangeName;
+    private final TaskMessagePublisher publisher;
 
-    TaskEventPropagator(AmqpTemplate amqpTemplate, @Value("${owms.tasks.exchange-name}") String exchangeName, TaskMapper mapper) {
-        this.amqpTemplate = amqpTemplate;
-        this.exchangeName = exchangeName;
+    TaskEventPropagator(TaskMessagePublisher publisher, TaskMapper mapper) {
+        this.publisher = publisher;
         this.mapper = mapper;
     }
 
@@ -55,26 +57,49 @@ class TaskEventPropagator {
         switch(event.getType()) {
             case CREATED:
                 LOGGER.info("Task created [{}]", event.getSource());
-                amqpTemplate.convertAndSend(exchangeName, "task.event.created", mapper.convertToMO(event.getSource()));
+                publisher.publish("task.event.created", mapper.convertToMO(event.getSource()));
                 break;
             case STARTED:
                 LOGGER.info("Task started [{}]", event.getSource());
-                amqpTemplate.convertAndSend(exchangeName, "task.event.started", mapper.convertToMO(event.getSource()));
+                publisher.publish("task.event.started", mapper.convertToMO(event.getSource()));
                 break;
             case PAUSED:
                 LOGGER.info("Task paused [{}]", event.getSource());
-                amqpTemplate.convertAndSend(exchangeName, "task.event.paused", mapper.convertToMO(event.getSource()));
+                publisher.publish("task.event.paused", mapper.convertToMO(event.getSource()));
                 break;
             case RESUMED:
                 LOGGER.info("Task resumed [{}]", event.getSource());
-                amqpTemplate.convertAndSend(exchangeName, "task.event.resumed", mapper.convertToMO(event.getSource()));
+                publisher.publish("task.event.resumed", mapper.convertToMO(event.getSource()));
                 break;
             case FINISHED:
                 LOGGER.info("Task finished [{}]", event.getSource());
-                amqpTemplate.convertAndSend(exchangeName, "task.event.finished", mapper.convertToMO(event.getSource()));
+                publisher.publish("task.event.finished", mapper.convertToMO(event.getSource()));
+                break;
+            case ASSIGNED:
+                LOGGER.info("Task assigned [{}]", event.getSource());
+                publisher.publish("task.event.assigned", mapper.convertToMO(event.getSource()));
+                break;
+            case RELEASED:
+                LOGGER.info("Task released [{}]", event.getSource());
+                publisher.publish("task.event.released", mapper.convertToMO(event.getSource()));
                 break;
             default:
                 LOGGER.warn("TaskEvent of type [{}] is not propagated", event.getType());
         }
     }
+
+    @Measured
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onBatchEvent(TaskBatchEvent event) {
+        var routingKey = routingKey(event.getType());
+        LOGGER.info("Batch of [{}] Tasks {}", event.getSource().size(), event.getType());
+        for (var task : event.getSource()) {
+            publisher.publish(routingKey, mapper.convertToMO(task));
+        }
+    }
+
+    static String routingKey(TaskEvent.Type type) {
+        return "task.event." + type.name().toLowerCase(Locale.ROOT);
+    }
 }
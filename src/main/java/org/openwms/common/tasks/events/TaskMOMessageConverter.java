@@ -0,0 +1,224 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.events;
+
+import org.openwms.common.tasks.api.TaskState;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * A TaskMOMessageConverter converts {@link TaskMO}s into a compact binary format and back. The format starts with a version
+ * byte and a bitmask of the fields that are present, followed by the present fields in declaration order:
+ * <ul>
+ *     <li>Strings as variable length byte count and UTF-8 bytes</li>
+ *     <li>{@link TaskState} as one byte ordinal</li>
+ *     <li>Timestamps as variable length epoch seconds, nanoseconds and the offset in minutes</li>
+ * </ul>
+ * New fields must be appended with a new bit, so that older readers are still able to read the known fields. The ordinals of
+ * {@link TaskState} must not change.
+ *
+ * @author Heiko Scherrer
+ */
+public class TaskMOMessageConverter extends AbstractMessageConverter {
+
+    /** The content type of binary encoded {@link TaskMO}s. */
+    public static final String CONTENT_TYPE = "application/vnd.openwms.task-v1+binary";
+    private static final byte VERSION = 1;
+    private static final int P_KEY = 1;
+    private static final int TASK_ID = 1 << 1;
+    private static final int DESCRIPTION = 1 << 2;
+    private static final int TYPE = 1 << 3;
+    private static final int STATE = 1 << 4;
+    private static final int STARTED_AT = 1 << 5;
+    private static final int FINISHED_AT = 1 << 6;
+    private static final TaskState[] STATES = TaskState.values();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Message createMessage(Object object, MessageProperties messageProperties) {
+        if (!(object instanceof TaskMO mo)) {
+            throw new MessageConversionException("Only TaskMOs can be converted but was [%s]".formatted(object == null ? null : object.getClass()));
+        }
+        var body = encode(mo);
+        messageProperties.setContentType(CONTENT_TYPE);
+        messageProperties.setContentLength(body.length);
+        return new Message(body, messageProperties);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object fromMessage(Message message) {
+        var contentType = message.getMessageProperties().getContentType();
+        if (contentType != null && !CONTENT_TYPE.equals(contentType)) {
+            throw new MessageConversionException("Cannot convert content type [%s]".formatted(contentType));
+        }
+        return decode(message.getBody());
+    }
+
+    /**
+     * Encode a {@link TaskMO}.
+     *
+     * @param mo The instance to encode
+     * @return The binary representation
+     */
+    public static byte[] encode(TaskMO mo) {
+        var out = new ByteArrayOutputStream(64);
+        out.write(VERSION);
+        int presence = 0;
+        presence |= mo.getpKey() != null ? P_KEY : 0;
+        presence |= mo.getTaskId() != null ? TASK_ID : 0;
+        presence |= mo.getDescription() != null ? DESCRIPTION : 0;
+        presence |= mo.getType() != null ? TYPE : 0;
+        presence |= mo.getState() != null ? STATE : 0;
+        presence |= mo.getStartedAt() != null ? STARTED_AT : 0;
+        presence |= mo.getFinishedAt() != null ? FINISHED_AT : 0;
+        out.write(presence);
+        if (mo.getpKey() != null) {
+            writeString(out, mo.getpKey());
+        }
+        if (mo.getTaskId() != null) {
+            writeString(out, mo.getTaskId());
+        }
+        if (mo.getDescription() != null) {
+            writeString(out, mo.getDescription());
+        }
+        if (mo.getType() != null) {
+            writeString(out, mo.getType());
+        }
+        if (mo.getState() != null) {
+            out.write(mo.getState().ordinal());
+        }
+        if (mo.getStartedAt() != null) {
+            writeTimestamp(out, mo.getStartedAt());
+        }
+        if (mo.getFinishedAt() != null) {
+            writeTimestamp(out, mo.getFinishedAt());
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode a {@link TaskMO}.
+     *
+     * @param body The binary representation
+     * @return The decoded instance
+     * @throws MessageConversionException if the body is not a valid binary representation
+     */
+    public static TaskMO decode(byte[] body) {
+        var in = ByteBuffer.wrap(body);
+        try {
+            var version = in.get();
+            if (version != VERSION) {
+                throw new MessageConversionException("Unsupported version [%d] of the binary TaskMO format".formatted(version));
+            }
+            var presence = in.get() & 0xFF;
+            var mo = new TaskMO();
+            if ((presence & P_KEY) != 0) {
+                mo.setpKey(readString(in));
+            }
+            if ((presence & TASK_ID) != 0) {
+                mo.setTaskId(readString(in));
+            }
+            if ((presence & DESCRIPTION) != 0) {
+                mo.setDescription(readString(in));
+            }
+            if ((presence & TYPE) != 0) {
+                mo.setType(readString(in));
+            }
+            if ((presence & STATE) != 0) {
+                mo.setState(STATES[in.get() & 0xFF]);
+            }
+            if ((presence & STARTED_AT) != 0) {
+                mo.setStartedAt(readTimestamp(in));
+            }
+            if ((presence & FINISHED_AT) != 0) {
+                mo.setFinishedAt(readTimestamp(in));
+            }
+            return mo;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException | DateTimeException e) {
+            throw new MessageConversionException("Invalid binary TaskMO", e);
+        }
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        var length = (int) readVarLong(in);
+        var value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static void writeTimestamp(ByteArrayOutputStream out, ZonedDateTime value) {
+        writeVarLong(out, zigZag(value.toEpochSecond()));
+        writeVarLong(out, value.getNano());
+        writeVarLong(out, zigZag(value.getOffset().getTotalSeconds() / 60));
+    }
+
+    private static ZonedDateTime readTimestamp(ByteBuffer in) {
+        var epochSecond = unZigZag(readVarLong(in));
+        var nanos = readVarLong(in);
+        var offset = ZoneOffset.ofTotalSeconds((int) unZigZag(readVarLong(in)) * 60);
+        return ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nanos), offset);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            var b = in.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new MessageConversionException("Malformed variable length number in binary TaskMO");
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.events;
+
+/**
+ * A TaskMessagePublisher sends messages about Task changes to the broker. It is only used by the {@link TaskEventPropagator},
+ * hence the publishing mode has no effect while the outbox is enabled; the {@link TaskOutboxRelay} sends and confirms its batches
+ * itself.
+ *
+ * @author Heiko Scherrer
+ */
+interface TaskMessagePublisher {
+
+    /**
+     * Publish a message. Depending on the implementation the message is sent before the method returns or later on.
+     *
+     * @param routingKey The routing key
+     * @param message The message to send
+     */
+    void publish(String routingKey, TaskMO message);
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.events;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import org.ameba.integration.jpa.ApplicationEntity;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.StringJoiner;
+
+/**
+ * A TaskOutboxEO is a message about a Task change that is stored in the same transaction as the change itself and sent to the
+ * broker afterwards. Messages are sent in the order of their primary key. The key is drawn from the sequence when the message
+ * is stored, so a later change of the same Task always gets a greater key.
+ *
+ * @author Heiko Scherrer
+ */
+@Entity
+@Table(name = "TSK_TASK_OUTBOX",
+        indexes = {
+                @Index(name = "IDX_TSK_OUTBOX_PENDING", columnList = "C_SENT_AT, C_PK")
+        })
+public class TaskOutboxEO extends ApplicationEntity implements Serializable {
+
+    /** The routing key the message is sent with. */
+    @NotNull
+    @Column(name = "C_ROUTING_KEY", nullable = false)
+    private String routingKey;
+
+    /** The message in JSON, independent of the serialization used on the wire. */
+    @NotNull
+    @Column(name = "C_PAYLOAD", nullable = false, length = 4000)
+    private String payload;
+
+    /** When the change happened. */
+    @NotNull
+    @Column(name = "C_OCCURRED_AT", nullable = false)
+    private Instant occurredAt;
+
+    /** When the message has been sent, {@literal null} as long as it is pending. */
+    @Column(name = "C_SENT_AT")
+    private Instant sentAt;
+
+    /** Dear JPA... */
+    protected TaskOutboxEO() {}
+
+    TaskOutboxEO(String routingKey, String payload, Instant occurredAt) {
+        this.routingKey = routingKey;
+        this.payload = payload;
+        this.occurredAt = occurredAt;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public Instant getSentAt() {
+        return sentAt;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Without the payload.
+     */
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", TaskOutboxEO.class.getSimpleName() + "[", "]")
+                .add("routingKey='" + routingKey + "'")
+                .add("occurredAt=" + occurredAt)
+                .add("sentAt=" + sentAt)
+                .toString();
+    }
+}
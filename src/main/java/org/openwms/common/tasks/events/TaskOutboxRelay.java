@@ -0,0 +1,156 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.ameba.annotation.Measured;
+import org.ameba.app.SpringProfiles;
+import org.openwms.common.tasks.TimeProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.ServiceLoader;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A TaskOutboxRelay sends the pending messages of the outbox to the broker. Each batch is locked, sent, confirmed by the broker
+ * and marked as sent in one transaction. Only one relay sends at a time: while the oldest pending messages are locked by the
+ * relay of another instance, the run is skipped. Together with the order of the primary keys this keeps the messages of each
+ * Task in the order the changes happened. If sending fails, the whole batch stays pending and is sent again with the next run,
+ * so messages are delivered at least once.
+ *
+ * @author Heiko Scherrer
+ */
+@Profile(SpringProfiles.ASYNCHRONOUS_PROFILE)
+@ConditionalOnProperty(name = "owms.tasks.outbox.enabled", havingValue = "true")
+@Component
+class TaskOutboxRelay {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskOutboxRelay.class);
+    private final TimeProvider timeProvider = ServiceLoader.load(TimeProvider.class).iterator().next();
+    private final TaskOutboxRepository repository;
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate txTemplate;
+    private final String exchangeName;
+    private final int batchSize;
+    private final Duration retention;
+    private final Duration confirmTimeout;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final DistributionSummary batchSizes;
+
+    TaskOutboxRelay(TaskOutboxRepository repository, RabbitTemplate rabbitTemplate, ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${owms.tasks.exchange-name}") String exchangeName,
+            @Value("${owms.tasks.outbox.batch-size:200}") int batchSize,
+            @Value("${owms.tasks.outbox.retention:P7D}") Duration retention,
+            @Value("${owms.tasks.publishing.confirm-timeout:PT5S}") Duration confirmTimeout) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size of the TaskOutboxRelay must be greater than 0");
+        }
+        this.repository = repository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.exchangeName = exchangeName;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.confirmTimeout = confirmTimeout;
+        Gauge.builder("owms.tasks.outbox.lag", lagMillis, AtomicLong::get)
+                .description("Age of the oldest pending message in the outbox")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("owms.tasks.outbox.batch.size")
+                .description("Number of messages sent per batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Send batches of pending messages until the outbox is drained.
+     */
+    @Measured
+    @Scheduled(fixedDelayString = "${owms.tasks.outbox.relay-interval:500}")
+    public void relay() {
+        try {
+            Integer sent;
+            do {
+                sent = txTemplate.execute(status -> sendBatch());
+            } while (sent != null && sent == batchSize);
+        } catch (PessimisticLockingFailureException e) {
+            LOGGER.debug("The outbox is relayed by another instance, skip this run");
+        } catch (AmqpException e) {
+            LOGGER.warn("Sending the outbox failed and is retried with the next run: [{}]", e.getMessage());
+        } finally {
+            lagMillis.set(repository.findOldestPending()
+                    .map(oldest -> Math.max(0, Duration.between(oldest, timeProvider.now()).toMillis()))
+                    .orElse(0L));
+        }
+    }
+
+    private int sendBatch() {
+        var pending = repository.findPendingForUpdate(Limit.of(batchSize));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        var pks = new ArrayList<Long>(pending.size());
+        rabbitTemplate.invoke(operations -> {
+            for (var message : pending) {
+                operations.convertAndSend(exchangeName, message.getRoutingKey(), toMO(message));
+                pks.add(message.getPk());
+            }
+            operations.waitForConfirmsOrDie(confirmTimeout.toMillis());
+            return null;
+        });
+        repository.markSent(pks, timeProvider.now());
+        batchSizes.record(pending.size());
+        return pending.size();
+    }
+
+    private TaskMO toMO(TaskOutboxEO message) {
+        try {
+            return objectMapper.readValue(message.getPayload(), TaskMO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read the message [%s] from the outbox".formatted(message.getPk()), e);
+        }
+    }
+
+    /**
+     * Delete the sent messages that are older than the retention period.
+     */
+    @Measured
+    @Scheduled(cron = "${owms.tasks.outbox.purge-cron:0 0 * * * *}")
+    public void purge() {
+        var deleted = txTemplate.execute(status -> repository.deleteSentBefore(timeProvider.now().minus(retention)));
+        LOGGER.debug("Purged [{}] sent messages from the outbox", deleted);
+    }
+}
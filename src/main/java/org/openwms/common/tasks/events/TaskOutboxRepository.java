@@ -0,0 +1,64 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.events;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A TaskOutboxRepository.
+ *
+ * @author Heiko Scherrer
+ */
+interface TaskOutboxRepository extends JpaRepository<TaskOutboxEO, Long> {
+
+    /**
+     * Find the oldest pending messages and lock them. Fails immediately instead of waiting if the oldest messages are locked by
+     * the relay of another instance ({@code FOR UPDATE NOWAIT}), so only one relay sends at a time.
+     *
+     * @param limit The maximum number of messages
+     * @return The messages in the order they have to be sent
+     * @throws org.springframework.dao.PessimisticLockingFailureException if another relay holds the lock
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "0")) // LockOptions.NO_WAIT
+    @Query("select o from TaskOutboxEO o where o.sentAt is null order by o.pk")
+    List<TaskOutboxEO> findPendingForUpdate(Limit limit);
+
+    @Query("select min(o.occurredAt) from TaskOutboxEO o where o.sentAt is null")
+    Optional<Instant> findOldestPending();
+
+    @Modifying
+    @Query("update TaskOutboxEO o set o.sentAt = :sentAt where o.pk in :pks")
+    int markSent(@Param("pks") Collection<Long> pks, @Param("sentAt") Instant sentAt);
+
+    @Modifying
+    @Query("delete from TaskOutboxEO o where o.sentAt < :before")
+    int deleteSentBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.ameba.app.SpringProfiles;
+import org.openwms.common.tasks.TimeProvider;
+import org.openwms.common.tasks.impl.TaskEO;
+import org.openwms.common.tasks.impl.TaskMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.ServiceLoader;
+
+/**
+ * A TaskOutboxWriter stores each {@link TaskEvent} and {@link TaskBatchEvent} as pending message in the outbox. It listens
+ * synchronously, so that the messages are committed or rolled back together with the Task changes.
+ *
+ * @author Heiko Scherrer
+ */
+@Profile(SpringProfiles.ASYNCHRONOUS_PROFILE)
+@ConditionalOnProperty(name = "owms.tasks.outbox.enabled", havingValue = "true")
+@Component
+class TaskOutboxWriter {
+
+    private final TimeProvider timeProvider = ServiceLoader.load(TimeProvider.class).iterator().next();
+    private final TaskOutboxRepository repository;
+    private final TaskMapper mapper;
+    private final ObjectMapper objectMapper;
+
+    TaskOutboxWriter(TaskOutboxRepository repository, TaskMapper mapper, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener
+    public void onEvent(TaskEvent event) {
+        repository.save(toOutbox(event.getSource(), event.getType(), timeProvider.now()));
+    }
+
+    @EventListener
+    public void onBatchEvent(TaskBatchEvent event) {
+        var occurredAt = timeProvider.now();
+        var messages = new ArrayList<TaskOutboxEO>(event.getSource().size());
+        for (var task : event.getSource()) {
+            messages.add(toOutbox(task, event.getType(), occurredAt));
+        }
+        repository.saveAll(messages);
+    }
+
+    private TaskOutboxEO toOutbox(TaskEO task, TaskEvent.Type type, Instant occurredAt) {
+        try {
+            return new TaskOutboxEO(TaskEventPropagator.routingKey(type), objectMapper.writeValueAsString(mapper.convertToMO(task)), occurredAt);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize Task [%s] into the outbox".formatted(task.getPersistentKey()), e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.ameba.integration.jpa.ApplicationEntity;
+import org.openwms.common.tasks.events.ReferenceDataEvictionEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * A ReferenceDataCache keeps the second-level cache of rarely changing entities, like {@link TaskGroupEO}, consistent across
+ * all instances of the service. Registered as JPA entity listener it tells the other instances over the bus to evict a changed
+ * entity after the changing transaction has committed. This instance has already updated its own cache entry at that time.
+ * Changes made outside of the service are only visible after the cached entry has expired, see {@code application.conf}.
+ *
+ * @author Heiko Scherrer
+ */
+@Component
+class ReferenceDataCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReferenceDataCache.class);
+    // Providers, because the EntityManagerFactory creates this listener while it is built itself
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final ObjectProvider<TaskCacheBroadcaster> broadcaster;
+
+    ReferenceDataCache(ObjectProvider<EntityManagerFactory> entityManagerFactory, ObjectProvider<TaskCacheBroadcaster> broadcaster) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.broadcaster = broadcaster;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void onChange(ApplicationEntity entity) {
+        var entityType = entity.getClass();
+        var pks = List.of(entity.getPk());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcaster.ifAvailable(b -> b.broadcast(entityType, pks));
+                }
+            });
+        } else {
+            broadcaster.ifAvailable(b -> b.broadcast(entityType, pks));
+        }
+    }
+
+    @EventListener
+    public void onRemoteEviction(ReferenceDataEvictionEvent event) {
+        var emf = entityManagerFactory.getObject();
+        emf.getMetamodel().getEntities().stream()
+                .filter(e -> e.getJavaType().getName().equals(event.getEntityType()))
+                .findFirst()
+                .ifPresentOrElse(
+                        e -> event.getPks().forEach(pk -> emf.getCache().evict(e.getJavaType(), pk)),
+                        () -> LOGGER.warn("Received an eviction of the unknown entity type [{}]", event.getEntityType())
+                );
+    }
+}
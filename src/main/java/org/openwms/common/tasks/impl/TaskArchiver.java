@@ -0,0 +1,120 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.ameba.annotation.Measured;
+import org.openwms.common.tasks.TimeProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ServiceLoader;
+
+/**
+ * A TaskArchiver moves Tasks that have been finished longer than {@code owms.tasks.archive.age} from {@code TSK_TASK} into
+ * {@code TSK_TASK_HISTORY} and purges the history after {@code owms.tasks.archive.retention}. Each chunk is locked, copied and
+ * deleted in its own short transaction, chunks locked by the archiver of another instance are skipped.
+ *
+ * @author Heiko Scherrer
+ */
+@ConditionalOnProperty(name = "owms.tasks.archive.enabled", havingValue = "true", matchIfMissing = true)
+@Component
+class TaskArchiver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskArchiver.class);
+    private final TimeProvider timeProvider = ServiceLoader.load(TimeProvider.class).iterator().next();
+    private final TaskHistoryRepository repository;
+    private final TransactionTemplate txTemplate;
+    private final Duration age;
+    private final Duration retention;
+    private final int chunkSize;
+    private final Counter archived;
+    private final Counter purged;
+
+    TaskArchiver(TaskHistoryRepository repository, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${owms.tasks.archive.age:P30D}") Duration age,
+            @Value("${owms.tasks.archive.retention:P365D}") Duration retention,
+            @Value("${owms.tasks.archive.chunk-size:500}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size of the TaskArchiver must be greater than 0");
+        }
+        this.repository = repository;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.age = age;
+        this.retention = retention;
+        this.chunkSize = chunkSize;
+        this.archived = Counter.builder("owms.tasks.archive.archived")
+                .description("Number of Tasks moved into the history")
+                .register(meterRegistry);
+        this.purged = Counter.builder("owms.tasks.archive.purged")
+                .description("Number of Tasks deleted from the history")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Archive chunks of finished Tasks until none is left.
+     *
+     * @return The number of archived Tasks
+     */
+    @Measured
+    @Scheduled(cron = "${owms.tasks.archive.cron:0 */10 * * * *}")
+    public int archive() {
+        var before = timeProvider.nowAsZonedDateTime().minus(age);
+        var total = 0;
+        Integer moved;
+        do {
+            moved = txTemplate.execute(status -> archiveChunk(before));
+            total += moved == null ? 0 : moved;
+        } while (moved != null && moved == chunkSize);
+        if (total > 0) {
+            LOGGER.info("Archived [{}] Tasks finished before [{}]", total, before);
+        }
+        return total;
+    }
+
+    private int archiveChunk(ZonedDateTime before) {
+        var pks = repository.findArchivableForUpdate(before, chunkSize);
+        if (pks.isEmpty()) {
+            return 0;
+        }
+        repository.copyToHistory(pks, timeProvider.nowAsZonedDateTime());
+        var deleted = repository.deleteTasks(pks);
+        archived.increment(deleted);
+        return pks.size();
+    }
+
+    /**
+     * Delete the archived Tasks that are older than the retention period.
+     */
+    @Measured
+    @Scheduled(cron = "${owms.tasks.archive.purge-cron:0 30 2 * * *}")
+    public void purge() {
+        var deleted = txTemplate.execute(status -> repository.deleteArchivedBefore(timeProvider.nowAsZonedDateTime().minus(retention)));
+        if (deleted != null) {
+            purged.increment(deleted);
+            LOGGER.debug("Purged [{}] Tasks from the history", deleted);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import org.openwms.common.tasks.api.TaskVO;
+import org.openwms.common.tasks.events.TaskBatchEvent;
+import org.openwms.common.tasks.events.TaskCacheEvictionEvent;
+import org.openwms.common.tasks.events.TaskEvent;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A TaskCache keeps recently read {@link TaskVO}s by their persistent key. Changed Tasks are evicted after the changing
+ * transaction has committed, on this instance and, if the bus is enabled, on all other instances. Size and time based eviction
+ * is configured with the {@code spring.cache.caffeine.spec}.
+ *
+ * @author Heiko Scherrer
+ */
+@Component
+class TaskCache {
+
+    /** The name of the cache. */
+    static final String CACHE_NAME = "tasks";
+    private final Cache cache;
+    private final TaskMapper mapper;
+    private final ObjectProvider<TaskCacheBroadcaster> broadcaster;
+
+    TaskCache(CacheManager cacheManager, TaskMapper mapper, ObjectProvider<TaskCacheBroadcaster> broadcaster) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+        if (this.cache == null) {
+            throw new IllegalStateException("The cache [%s] is not configured".formatted(CACHE_NAME));
+        }
+        this.mapper = mapper;
+        this.broadcaster = broadcaster;
+    }
+
+    /**
+     * Get a Task from the cache or load it into the cache. Loading and storing happen atomically for the key, an eviction that
+     * runs meanwhile waits for the load and removes its result afterwards. Otherwise a Task that has been loaded before a change
+     * committed could be stored after the eviction of that change and served stale until it expires.
+     *
+     * @param pKey The persistent key of the Task
+     * @param loader Loads the Task if it is not cached
+     * @return A copy of the cached instance that the caller is free to modify
+     */
+    TaskVO get(String pKey, Supplier<TaskVO> loader) {
+        try {
+            return mapper.copy(cache.get(pKey, loader::get));
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                // Like NotFoundException, keep what the loader has thrown
+                throw re;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Evict the Tasks when the current transaction has committed, or immediately without a transaction.
+     *
+     * @param pKeys The persistent keys of the changed Tasks
+     */
+    void evictAfterCommit(Collection<String> pKeys) {
+        var keys = List.copyOf(pKeys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(keys);
+                    broadcaster.ifAvailable(b -> b.broadcast(keys));
+                }
+            });
+        } else {
+            evict(keys);
+            broadcaster.ifAvailable(b -> b.broadcast(keys));
+        }
+    }
+
+    private void evict(Collection<String> pKeys) {
+        pKeys.forEach(cache::evict);
+    }
+
+    @EventListener
+    public void onEvent(TaskEvent event) {
+        evictAfterCommit(List.of(event.getSource().getPersistentKey()));
+    }
+
+    @EventListener
+    public void onBatchEvent(TaskBatchEvent event) {
+        evictAfterCommit(event.getSource().stream().map(TaskEO::getPersistentKey).toList());
+    }
+
+    @EventListener
+    public void onRemoteEviction(TaskCacheEvictionEvent event) {
+        evict(event.getpKeys());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import org.openwms.common.tasks.events.ReferenceDataEvictionEvent;
+import org.openwms.common.tasks.events.TaskCacheEvictionEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.bus.BusProperties;
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * A TaskCacheBroadcaster tells all other instances of the service over the bus to evict changed Tasks and reference data from their
+ * caches.
+ *
+ * @author Heiko Scherrer
+ */
+@ConditionalOnProperty(name = "spring.cloud.bus.enabled", havingValue = "true")
+@Component
+class TaskCacheBroadcaster {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskCacheBroadcaster.class);
+    private final ApplicationEventPublisher eventPublisher;
+    private final BusProperties busProperties;
+    private final Destination.Factory destinationFactory;
+
+    TaskCacheBroadcaster(ApplicationEventPublisher eventPublisher, BusProperties busProperties, Destination.Factory destinationFactory) {
+        this.eventPublisher = eventPublisher;
+        this.busProperties = busProperties;
+        this.destinationFactory = destinationFactory;
+    }
+
+    void broadcast(List<String> pKeys) {
+        try {
+            eventPublisher.publishEvent(new TaskCacheEvictionEvent(this, busProperties.getId(), destinationFactory.getDestination(null), pKeys));
+        } catch (RuntimeException e) {
+            // The cached entries of other instances expire anyway
+            LOGGER.warn("Cannot send the eviction of [{}] Tasks over the bus: [{}]", pKeys.size(), e.getMessage());
+        }
+    }
+
+    void broadcast(Class<?> entityType, List<Long> pks) {
+        try {
+            eventPublisher.publishEvent(new ReferenceDataEvictionEvent(this, busProperties.getId(), destinationFactory.getDestination(null),
+                    entityType.getName(), pks));
+        } catch (RuntimeException e) {
+            // The cached entries of other instances expire anyway
+            LOGGER.warn("Cannot send the eviction of [{}] [{}] over the bus: [{}]", pks.size(), entityType.getSimpleName(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import org.openwms.common.tasks.api.TaskState;
+import org.openwms.common.tasks.events.TaskBatchEvent;
+import org.openwms.common.tasks.events.TaskCacheEvictionEvent;
+import org.openwms.common.tasks.events.TaskEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * A TaskDispatchQueue holds all Tasks that can be claimed, these are the unassigned Tasks in state {@code CREATED}, ordered by
+ * their dispatch time per type. It is built from the database at startup and afterwards maintained from the committed
+ * {@link TaskEvent}s and {@link TaskBatchEvent}s, so that the next Task to dispatch is found without querying the database.
+ * <p>
+ * The dispatch time of a Task is calculated once when it is created and stored with the Task, the earlier the more urgent.
+ * It starts at the creation time and is brought forward by the {@code aging-step} for each level of priority. Hence, a Task
+ * of lower priority catches up with one of higher priority the longer it waits and cannot starve. A Task with a due date is
+ * dispatched at the latest the {@code due-lead} ahead of its due date. The database is queried in the same order, so it
+ * does not matter whether a Task is claimed from the queue or from the database.
+ * <p>
+ * Tasks changed by other instances of the service are announced with a {@link TaskCacheEvictionEvent} over the bus, their
+ * current state is then read from the database. Until the event arrives, a Task another instance has claimed is detected
+ * when it is claimed and then dropped.
+ * <p>
+ * A rebuild fills a new queue and swaps it in at once, so that a claim never sees a partly built queue. Tasks changed while
+ * the new queue is built are read from the database again afterwards.
+ *
+ * @author Heiko Scherrer
+ */
+@Component
+class TaskDispatchQueue {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskDispatchQueue.class);
+    private static final Comparator<Entry> ORDER = Comparator.comparingLong(Entry::dispatchAt).thenComparingLong(Entry::pk);
+    /** Priorities beyond are treated like the highest or lowest priority, this keeps the dispatch time within a sane range. */
+    static final int MAX_PRIORITY = 1_000;
+    private final TaskRepository repository;
+    private final long agingStepMillis;
+    private final long dueLeadMillis;
+    private final String busId;
+    private volatile Queues queues = new Queues();
+    private volatile Set<String> changedWhileRebuilding;
+
+    TaskDispatchQueue(TaskRepository repository,
+            @Value("${owms.tasks.dispatch.aging-step:PT5M}") Duration agingStep,
+            @Value("${owms.tasks.dispatch.due-lead:PT15M}") Duration dueLead,
+            @Value("${spring.cloud.bus.id:}") String busId) {
+        this.repository = repository;
+        this.agingStepMillis = agingStep.toMillis();
+        this.dueLeadMillis = dueLead.toMillis();
+        this.busId = busId;
+    }
+
+    record Entry(String pKey, String type, long dispatchAt, long pk) {}
+
+    /**
+     * The queued Tasks per type and the same Tasks by their persistent key, always replaced together.
+     */
+    private static final class Queues {
+
+        private final ConcurrentMap<String, ConcurrentSkipListSet<Entry>> byType = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Entry> byPKey = new ConcurrentHashMap<>();
+
+        private void offer(Entry entry) {
+            var previous = byPKey.put(entry.pKey(), entry);
+            if (previous != null) {
+                queue(previous.type()).remove(previous);
+            }
+            queue(entry.type()).add(entry);
+        }
+
+        private void remove(String pKey) {
+            var entry = byPKey.remove(pKey);
+            if (entry != null) {
+                queue(entry.type()).remove(entry);
+            }
+        }
+
+        private ConcurrentSkipListSet<Entry> queue(String type) {
+            return byType.computeIfAbsent(type, t -> new ConcurrentSkipListSet<>(ORDER));
+        }
+    }
+
+    /**
+     * Calculate when a Task is dispatched.
+     *
+     * @param priority The priority of the Task, higher values are more urgent, limited to +/- {@value #MAX_PRIORITY}
+     * @param dueAt When the Task must be done at the latest or {@literal null}
+     * @param createdAt When the Task has been created
+     * @return The dispatch time
+     */
+    ZonedDateTime dispatchAt(int priority, ZonedDateTime dueAt, ZonedDateTime createdAt) {
+        var levels = Math.max(-MAX_PRIORITY, Math.min(priority, MAX_PRIORITY));
+        var result = createdAt.minus(Math.multiplyExact(levels, agingStepMillis), ChronoUnit.MILLIS);
+        if (dueAt != null) {
+            var latest = dueAt.minus(dueLeadMillis, ChronoUnit.MILLIS).withZoneSameInstant(createdAt.getZone());
+            if (latest.isBefore(result)) {
+                result = latest;
+            }
+        }
+        // Stored with milliseconds, so that the database orders the same way
+        return result.truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    /**
+     * Replace all queued Tasks with the claimable Tasks that currently exist in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        var changed = ConcurrentHashMap.<String>newKeySet();
+        changedWhileRebuilding = changed;
+        var rebuilt = new Queues();
+        var rows = repository.findDispatchable(TaskState.CREATED);
+        rows.forEach(row -> rebuilt.offer(toEntry(row)));
+        queues = rebuilt;
+        changedWhileRebuilding = null;
+        if (!changed.isEmpty()) {
+            reload(changed);
+        }
+        LOGGER.debug("Built dispatch queue with [{}] Tasks", rows.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEvent(TaskEvent event) {
+        update(event.getSource());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEvent(TaskBatchEvent event) {
+        event.getSource().forEach(this::update);
+    }
+
+    @EventListener
+    public void onRemoteChange(TaskCacheEvictionEvent event) {
+        if (Objects.equals(busId, event.getOriginService())) {
+            // Own changes are already applied from the local events
+            return;
+        }
+        reload(event.getpKeys());
+    }
+
+    private void reload(Collection<String> pKeys) {
+        var removed = new HashSet<>(pKeys);
+        for (var row : repository.findDispatchable(TaskState.CREATED, pKeys)) {
+            offer(toEntry(row));
+            removed.remove((String) row[0]);
+        }
+        removed.forEach(this::remove);
+    }
+
+    private void update(TaskEO task) {
+        if (task.getState() == TaskState.CREATED && task.getAssignedTo() == null) {
+            offer(task.getPersistentKey(), task.getType(), task.getDispatchAt(), task.getPk());
+        } else {
+            remove(task.getPersistentKey());
+        }
+    }
+
+    private static Entry toEntry(Object[] row) {
+        return new Entry((String) row[0], Objects.requireNonNullElse((String) row[1], ""), toInstant(row[2]).toEpochMilli(),
+                ((Number) row[3]).longValue());
+    }
+
+    /**
+     * Queue a Task or move it to a new position if it is already queued.
+     *
+     * @param pKey The persistent key of the Task
+     * @param type The type of the Task
+     * @param dispatchAt When the Task is dispatched
+     * @param pk The primary key of the Task, orders Tasks with the same dispatch time
+     */
+    void offer(String pKey, String type, ZonedDateTime dispatchAt, long pk) {
+        offer(new Entry(pKey, Objects.requireNonNullElse(type, ""), toInstant(dispatchAt).toEpochMilli(), pk));
+    }
+
+    private void offer(Entry entry) {
+        // Recorded before the change is applied, so that a change applied to a queue that is replaced in between is not lost
+        markChanged(entry.pKey());
+        queues.offer(entry);
+    }
+
+    /**
+     * Remove a Task from the queue.
+     *
+     * @param pKey The persistent key of the Task
+     */
+    void remove(String pKey) {
+        markChanged(pKey);
+        queues.remove(pKey);
+    }
+
+    private void markChanged(String pKey) {
+        var changed = changedWhileRebuilding;
+        if (changed != null) {
+            changed.add(pKey);
+        }
+    }
+
+    /**
+     * Take the most urgent Task out of the queue. Concurrent callers never get the same Task. If called within a transaction
+     * that is rolled back afterwards, the Task is queued again.
+     *
+     * @param type Only a Task of this type or of any type if {@literal null}
+     * @return The persistent key of the Task or nothing if no Task is queued
+     */
+    Optional<String> poll(String type) {
+        var current = queues;
+        while (true) {
+            var queue = type == null ? mostUrgent(current) : current.byType.get(type);
+            if (queue == null) {
+                return Optional.empty();
+            }
+            var entry = queue.pollFirst();
+            if (entry == null) {
+                if (type != null) {
+                    return Optional.empty();
+                }
+                // Another caller emptied the queue of the most urgent type in between
+                continue;
+            }
+            // Skip entries that have been replaced or removed concurrently
+            if (current.byPKey.remove(entry.pKey(), entry)) {
+                restoreOnRollback(entry);
+                return Optional.of(entry.pKey());
+            }
+        }
+    }
+
+    private static ConcurrentSkipListSet<Entry> mostUrgent(Queues current) {
+        ConcurrentSkipListSet<Entry> result = null;
+        Entry head = null;
+        for (var queue : current.byType.values()) {
+            var first = firstOrNull(queue);
+            if (first != null && (head == null || ORDER.compare(first, head) < 0)) {
+                head = first;
+                result = queue;
+            }
+        }
+        return result;
+    }
+
+    private static Entry firstOrNull(ConcurrentSkipListSet<Entry> queue) {
+        var it = queue.iterator();
+        return it.hasNext() ? it.next() : null;
+    }
+
+    private void restoreOnRollback(Entry entry) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        var current = queues;
+                        current.byPKey.putIfAbsent(entry.pKey(), entry);
+                        if (current.byPKey.get(entry.pKey()) == entry) {
+                            current.queue(entry.type()).add(entry);
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Get the number of queued Tasks.
+     *
+     * @return The number of Tasks
+     */
+    int size() {
+        return queues.byPKey.size();
+    }
+
+    private static Instant toInstant(Object timestamp) {
+        return switch (timestamp) {
+            case Instant i -> i;
+            case ZonedDateTime z -> z.toInstant();
+            case LocalDateTime l -> l.atZone(ZoneId.systemDefault()).toInstant();
+            case Date d -> d.toInstant();
+            case null -> throw new IllegalArgumentException("The dispatch time of a Task must not be null");
+            default -> throw new IllegalArgumentException("Unsupported type of dispatch time [%s]".formatted(timestamp.getClass().getName()));
+        };
+    }
+}
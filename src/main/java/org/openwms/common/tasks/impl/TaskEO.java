@@ -19,7 +19,9 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.ForeignKey;
+import jakarta.persistence.Index;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
 import jakarta.persistence.JoinColumn;
@@ -45,7 +47,17 @@ import static org.openwms.common.tasks.TimeProvider.DATE_TIME_WITH_TIMEZONE;
  */
 @Entity
 @Inheritance(strategy = InheritanceType.JOINED)
-@Table(name = "TSK_TASK", uniqueConstraints = @UniqueConstraint(name = "UC_TASK_ID", columnNames = "C_TASK_ID"))
+@Table(name = "TSK_TASK",
+        uniqueConstraints = @UniqueConstraint(name = "UC_TASK_ID", columnNames = "C_TASK_ID"),
+        indexes = {
+                @Index(name = "IDX_TSK_STATE", columnList = "C_STATE, C_PK"),
+                @Index(name = "IDX_TSK_TYPE", columnList = "C_TYPE, C_PK"),
+                @Index(name = "IDX_TSK_ASSIGNED_TO", columnList = "C_ASSIGNED_TO, C_PK"),
+                @Index(name = "IDX_TSK_DISPATCH_AT", columnList = "C_STATE, C_ASSIGNED_TO, C_DISPATCH_AT, C_PK"),
+                @Index(name = "IDX_TSK_GROUP", columnList = "C_TASK_GROUP, C_PK"),
+                @Index(name = "IDX_TSK_STARTED_AT", columnList = "C_STARTED_AT"),
+                @Index(name = "IDX_TSK_FINISHED_AT", columnList = "C_FINISHED_AT")
+        })
 public class TaskEO extends ApplicationEntity implements Serializable {
 
     @NotNull
@@ -63,14 +75,28 @@ public class TaskEO extends ApplicationEntity implements Serializable {
     @Column(name = "C_STATE")
     private TaskState state;
 
-    @ManyToOne
+    /** Lazy, use batch fetching to avoid one select per parent when parents of many Tasks are accessed. */
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "C_PARENT_TASK", foreignKey = @ForeignKey(name = "FK_TSK_TSK_PARENT"))
     private TaskEO parentTask;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "C_TASK_GROUP", foreignKey = @ForeignKey(name = "FK_TSK_GRP"))
     private TaskGroupEO taskGroup;
 
+    /** Higher values are more urgent. */
+    @Column(name = "C_PRIORITY", columnDefinition = "integer default 0", nullable = false)
+    private int priority;
+
+    @Column(name = "C_DUE_AT", columnDefinition = "timestamp(0)")
+    @DateTimeFormat(pattern = DATE_TIME_WITH_TIMEZONE)
+    private ZonedDateTime dueAt;
+
+    /** When the Task is dispatched, derived from the creation time, the priority and the due date. The earlier the more urgent. */
+    @Column(name = "C_DISPATCH_AT", columnDefinition = "timestamp(3) default current_timestamp", nullable = false)
+    @DateTimeFormat(pattern = DATE_TIME_WITH_TIMEZONE)
+    private ZonedDateTime dispatchAt;
+
     @Column(name = "C_ASSIGNED_TO")
     private String assignedTo;
 
@@ -139,6 +165,30 @@ public class TaskEO extends ApplicationEntity implements Serializable {
         this.taskGroup = taskGroup;
     }
 
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    public ZonedDateTime getDueAt() {
+        return dueAt;
+    }
+
+    public void setDueAt(ZonedDateTime dueAt) {
+        this.dueAt = dueAt;
+    }
+
+    public ZonedDateTime getDispatchAt() {
+        return dispatchAt;
+    }
+
+    public void setDispatchAt(ZonedDateTime dispatchAt) {
+        this.dispatchAt = dispatchAt;
+    }
+
     public String getAssignedTo() {
         return assignedTo;
     }
@@ -174,7 +224,7 @@ public class TaskEO extends ApplicationEntity implements Serializable {
     /**
      * {@inheritDoc}
      *
-     * All fields.
+     * All fields except the relations, these are lazy loaded.
      */
     @Override
     public boolean equals(Object o) {
@@ -182,23 +232,23 @@ public class TaskEO extends ApplicationEntity implements Serializable {
         if (!(o instanceof TaskEO)) return false;
         if (!super.equals(o)) return false;
         TaskEO taskEO = (TaskEO) o;
-        return Objects.equals(taskId, taskEO.taskId) && Objects.equals(description, taskEO.description) && Objects.equals(type, taskEO.type) && state == taskEO.state && Objects.equals(parentTask, taskEO.parentTask) && Objects.equals(taskGroup, taskEO.taskGroup) && Objects.equals(startedAt, taskEO.startedAt) && Objects.equals(finishedAt, taskEO.finishedAt);
+        return Objects.equals(taskId, taskEO.taskId) && Objects.equals(description, taskEO.description) && Objects.equals(type, taskEO.type) && state == taskEO.state && priority == taskEO.priority && Objects.equals(dueAt, taskEO.dueAt) && Objects.equals(dispatchAt, taskEO.dispatchAt) && Objects.equals(assignedTo, taskEO.assignedTo) && Objects.equals(assignedAt, taskEO.assignedAt) && Objects.equals(startedAt, taskEO.startedAt) && Objects.equals(finishedAt, taskEO.finishedAt);
     }
 
     /**
      * {@inheritDoc}
      *
-     * All fields.
+     * All fields except the relations, these are lazy loaded.
      */
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), taskId, description, type, state, parentTask, taskGroup, startedAt, finishedAt);
+        return Objects.hash(super.hashCode(), taskId, description, type, state, priority, dueAt, dispatchAt, assignedTo, assignedAt, startedAt, finishedAt);
     }
 
     /**
      * {@inheritDoc}
      *
-     * All fields.
+     * All fields except the relations, these are lazy loaded.
      */
     @Override
     public String toString() {
@@ -207,8 +257,11 @@ public class TaskEO extends ApplicationEntity implements Serializable {
                 .add("description='" + description + "'")
                 .add("type='" + type + "'")
                 .add("state=" + state)
-                .add("parentTask=" + parentTask)
-                .add("taskGroup=" + taskGroup)
+                .add("priority=" + priority)
+                .add("dueAt=" + dueAt)
+                .add("dispatchAt=" + dispatchAt)
+                .add("assignedTo='" + assignedTo + "'")
+                .add("assignedAt=" + assignedAt)
                 .add("startedAt=" + startedAt)
                 .add("finishedAt=" + finishedAt)
                 .toString();
@@ -15,12 +15,16 @@
  */
 package org.openwms.common.tasks.impl;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 import org.ameba.integration.jpa.ApplicationEntity;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serializable;
 import java.util.HashSet;
@@ -28,14 +32,21 @@ import java.util.Objects;
 import java.util.Set;
 
 /**
- * A TaskGroupEO.
+ * A TaskGroupEO is read far more often than changed and therefore kept in the second-level cache. The Tasks of the group are
+ * not cached.
  *
  * @author Heiko Scherrer
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = TaskGroupEO.CACHE_REGION)
+@EntityListeners(ReferenceDataCache.class)
 @Table(name = "TSK_TASK_GROUP")
 public class TaskGroupEO extends ApplicationEntity implements Serializable {
 
+    /** The region of the second-level cache, configured in {@code application.conf}. */
+    public static final String CACHE_REGION = "tsk-task-groups";
+
     @NotNull
     @Column(name = "C_NAME", nullable = false)
     private String name;
@@ -46,6 +57,14 @@ public class TaskGroupEO extends ApplicationEntity implements Serializable {
     @OneToMany(mappedBy = "taskGroup")
     private Set<TaskEO> tasks = new HashSet<>();
 
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
     /**
      * {@inheritDoc}
      *
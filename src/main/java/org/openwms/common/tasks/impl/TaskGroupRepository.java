@@ -0,0 +1,66 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import org.openwms.common.tasks.api.TaskState;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A TaskGroupRepository. The figures of a group are computed by aggregate queries, the Tasks of a group are never loaded
+ * through the {@code tasks} collection of the {@link TaskGroupEO}.
+ *
+ * @author Heiko Scherrer
+ */
+interface TaskGroupRepository extends JpaRepository<TaskGroupEO, Long> {
+
+    Optional<TaskGroupEO> findBypKey(String pKey);
+
+    Slice<TaskGroupEO> findAllBy(Pageable pageable);
+
+    /**
+     * Count the Tasks of the given groups per state.
+     *
+     * @param groups The primary keys of the TaskGroups
+     * @return Tuples of group primary key, state and number of Tasks
+     */
+    @Query("select t.taskGroup.pk, t.state, count(t) from TaskEO t where t.taskGroup.pk in :groups group by t.taskGroup.pk, t.state")
+    List<Object[]> countByState(@Param("groups") Collection<Long> groups);
+
+    /**
+     * Find the earliest created Task of each group that is not in the {@code finished} state. Of Tasks created at the same
+     * time the one with the lowest primary key is taken.
+     *
+     * @param groups The primary keys of the TaskGroups
+     * @param finished The state of Tasks that are done
+     * @return Tuples of group primary key, persistent key and taskId of the Task
+     */
+    @Query("""
+            select t.taskGroup.pk, t.pKey, t.taskId from TaskEO t
+            where t.taskGroup.pk in :groups and t.state <> :finished and not exists (
+                select 1 from TaskEO o where o.taskGroup = t.taskGroup and o.state <> :finished
+                and (o.createDt < t.createDt or (o.createDt = t.createDt and o.pk < t.pk))
+            )
+            """)
+    List<Object[]> findOldestOpen(@Param("groups") Collection<Long> groups, @Param("finished") TaskState finished);
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import jakarta.validation.constraints.NotBlank;
+import org.openwms.common.tasks.api.TaskGroupSummaryVO;
+import org.springframework.data.domain.Slice;
+
+/**
+ * A TaskGroupService.
+ *
+ * @author Heiko Scherrer
+ */
+public interface TaskGroupService {
+
+    /** The default number of TaskGroups of one page. */
+    int DEFAULT_PAGE_SIZE = 100;
+    /** The maximum number of TaskGroups of one page. */
+    int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Find one page of TaskGroups together with the aggregated state of their Tasks.
+     *
+     * @param page The zero-based number of the page, defaults to the first one
+     * @param size The maximum number of TaskGroups to return, defaults to {@value #DEFAULT_PAGE_SIZE}
+     * @return The page of summaries, ordered by creation of the TaskGroups
+     */
+    Slice<TaskGroupSummaryVO> findAll(Integer page, Integer size);
+
+    /**
+     * Find the aggregated state of the Tasks of one TaskGroup.
+     *
+     * @param pKey The persistent key of the TaskGroup
+     * @return The summary
+     */
+    TaskGroupSummaryVO findByPKeyOrThrow(@NotBlank String pKey);
+
+    /**
+     * Find one page of the Tasks that belong to a TaskGroup, ordered by their creation. Tasks are only archived when all Tasks
+     * of their group are finished, archived Tasks are not part of the page.
+     *
+     * @param pKey The persistent key of the TaskGroup
+     * @param cursor The continuation token of the previous page or {@literal null} to start with the first page
+     * @param limit The maximum number of Tasks to return, defaults to {@value TaskService#DEFAULT_PAGE_SIZE}
+     * @return The page
+     */
+    TaskSlice findTasks(@NotBlank String pKey, String cursor, Integer limit);
+}
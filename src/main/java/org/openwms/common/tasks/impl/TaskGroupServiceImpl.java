@@ -0,0 +1,143 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import jakarta.validation.constraints.NotBlank;
+import org.ameba.annotation.Measured;
+import org.ameba.annotation.TxService;
+import org.ameba.exception.NotFoundException;
+import org.ameba.i18n.Translator;
+import org.openwms.common.tasks.api.TaskFilterVO;
+import org.openwms.common.tasks.api.TaskGroupSummaryVO;
+import org.openwms.common.tasks.api.TaskState;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.openwms.common.tasks.TaskMessageCodes.TASK_GROUP_NOT_FOUND;
+
+/**
+ * A TaskGroupServiceImpl.
+ *
+ * @author Heiko Scherrer
+ */
+@Validated
+@TxService
+class TaskGroupServiceImpl implements TaskGroupService {
+
+    private final Translator translator;
+    private final TaskGroupRepository repository;
+    private final TaskHistoryRepository historyRepository;
+    private final TaskService taskService;
+
+    TaskGroupServiceImpl(Translator translator, TaskGroupRepository repository, TaskHistoryRepository historyRepository,
+            TaskService taskService) {
+        this.translator = translator;
+        this.repository = repository;
+        this.historyRepository = historyRepository;
+        this.taskService = taskService;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Measured
+    public Slice<TaskGroupSummaryVO> findAll(Integer page, Integer size) {
+        var pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        var groups = repository.findAllBy(PageRequest.of(page == null ? 0 : Math.max(0, page), pageSize,
+                Sort.by(Sort.Direction.ASC, "pk")));
+        var summaries = summarize(groups.getContent());
+        return groups.map(group -> summaries.get(group.getPk()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Measured
+    public TaskGroupSummaryVO findByPKeyOrThrow(@NotBlank String pKey) {
+        var group = findInternal(pKey);
+        return summarize(List.of(group)).get(group.getPk());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The Tasks are paged through the keyset pagination of all Tasks, restricted to the TaskGroup.
+     */
+    @Override
+    @Measured
+    public TaskSlice findTasks(@NotBlank String pKey, String cursor, Integer limit) {
+        findInternal(pKey);
+        var filter = new TaskFilterVO();
+        filter.setTaskGroup(pKey);
+        return taskService.findAll(filter, cursor, limit);
+    }
+
+    private TaskGroupEO findInternal(String pKey) {
+        return repository.findBypKey(pKey)
+                .orElseThrow(() -> new NotFoundException(translator, TASK_GROUP_NOT_FOUND, new String[]{pKey}, pKey));
+    }
+
+    /*
+     * Three queries per call regardless of the number of TaskGroups and Tasks: one aggregates the counts per state, one adds the
+     * archived Tasks as finished and the last resolves the oldest open Task of each group.
+     */
+    private LinkedHashMap<Long, TaskGroupSummaryVO> summarize(List<TaskGroupEO> groups) {
+        var result = new LinkedHashMap<Long, TaskGroupSummaryVO>(groups.size());
+        if (groups.isEmpty()) {
+            return result;
+        }
+        for (var group : groups) {
+            var vo = new TaskGroupSummaryVO();
+            vo.setpKey(group.getPersistentKey());
+            vo.setName(group.getName());
+            vo.setDescription(group.getDescription());
+            for (var state : TaskState.values()) {
+                vo.getCountsByState().put(state, 0L);
+            }
+            result.put(group.getPk(), vo);
+        }
+        var pks = new ArrayList<>(result.keySet());
+        for (var row : repository.countByState(pks)) {
+            var vo = result.get(((Number) row[0]).longValue());
+            var count = ((Number) row[2]).longValue();
+            vo.getCountsByState().put((TaskState) row[1], count);
+            vo.setTotal(vo.getTotal() + count);
+        }
+        for (var row : historyRepository.countByTaskGroup(pks)) {
+            var vo = result.get(((Number) row[0]).longValue());
+            var count = ((Number) row[1]).longValue();
+            vo.getCountsByState().merge(TaskState.FINISHED, count, Long::sum);
+            vo.setTotal(vo.getTotal() + count);
+        }
+        for (var row : repository.findOldestOpen(pks, TaskState.FINISHED)) {
+            var vo = result.get(((Number) row[0]).longValue());
+            vo.setOldestOpenTask((String) row[1]);
+            vo.setOldestOpenTaskId((String) row[2]);
+        }
+        result.values().forEach(vo -> vo.setProgress(vo.getTotal() == 0
+                ? 0
+                : (int) (vo.getCountsByState().get(TaskState.FINISHED) * 100 / vo.getTotal())));
+        return result;
+    }
+}
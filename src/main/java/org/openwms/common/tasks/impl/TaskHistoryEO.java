@@ -0,0 +1,180 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.ameba.integration.jpa.ApplicationEntity;
+import org.openwms.common.tasks.api.TaskState;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+import static org.openwms.common.tasks.TimeProvider.DATE_TIME_WITH_TIMEZONE;
+
+/**
+ * A TaskHistoryEO is a finished Task that has been moved out of {@code TSK_TASK} by the {@link TaskArchiver}. Rows are only
+ * written by the archiver and keep the primary key of the Task, relations are kept as primary keys without constraints.
+ *
+ * @author Heiko Scherrer
+ */
+@Entity
+@Table(name = "TSK_TASK_HISTORY",
+        indexes = {
+                @Index(name = "IDX_TSK_HIST_ARCHIVED_AT", columnList = "C_ARCHIVED_AT")
+        })
+public class TaskHistoryEO extends ApplicationEntity implements Serializable {
+
+    @Column(name = "C_TASK_ID", nullable = false)
+    private String taskId;
+
+    @Column(name = "C_DESCRIPTION")
+    private String description;
+
+    @Column(name = "C_TYPE")
+    private String type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "C_STATE")
+    private TaskState state;
+
+    @Column(name = "C_PARENT_TASK")
+    private Long parentTask;
+
+    @Column(name = "C_TASK_GROUP")
+    private Long taskGroup;
+
+    @Column(name = "C_PRIORITY", columnDefinition = "integer default 0", nullable = false)
+    private int priority;
+
+    @Column(name = "C_DUE_AT", columnDefinition = "timestamp(0)")
+    @DateTimeFormat(pattern = DATE_TIME_WITH_TIMEZONE)
+    private ZonedDateTime dueAt;
+
+    @Column(name = "C_ASSIGNED_TO")
+    private String assignedTo;
+
+    @Column(name = "C_ASSIGNED_AT", columnDefinition = "timestamp(0)")
+    @DateTimeFormat(pattern = DATE_TIME_WITH_TIMEZONE)
+    private ZonedDateTime assignedAt;
+
+    @Column(name = "C_STARTED_AT", columnDefinition = "timestamp(0)")
+    @DateTimeFormat(pattern = DATE_TIME_WITH_TIMEZONE)
+    private ZonedDateTime startedAt;
+
+    @Column(name = "C_FINISHED_AT", columnDefinition = "timestamp(0)")
+    @DateTimeFormat(pattern = DATE_TIME_WITH_TIMEZONE)
+    private ZonedDateTime finishedAt;
+
+    @Column(name = "C_ARCHIVED_AT", columnDefinition = "timestamp(0)", nullable = false)
+    @DateTimeFormat(pattern = DATE_TIME_WITH_TIMEZONE)
+    private ZonedDateTime archivedAt;
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public TaskState getState() {
+        return state;
+    }
+
+    public Long getParentTask() {
+        return parentTask;
+    }
+
+    public Long getTaskGroup() {
+        return taskGroup;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public ZonedDateTime getDueAt() {
+        return dueAt;
+    }
+
+    public String getAssignedTo() {
+        return assignedTo;
+    }
+
+    public ZonedDateTime getAssignedAt() {
+        return assignedAt;
+    }
+
+    public ZonedDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public ZonedDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public ZonedDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Only the taskId.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TaskHistoryEO that)) return false;
+        if (!super.equals(o)) return false;
+        return Objects.equals(taskId, that.taskId);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Only the taskId.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), taskId);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Only the taskId and when it has been archived.
+     */
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", TaskHistoryEO.class.getSimpleName() + "[", "]")
+                .add("taskId='" + taskId + "'")
+                .add("archivedAt=" + archivedAt)
+                .toString();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A TaskHistoryRepository moves finished Tasks from {@code TSK_TASK} into {@code TSK_TASK_HISTORY} with plain SQL, so the
+ * Tasks are never loaded into the persistence context.
+ *
+ * @author Heiko Scherrer
+ */
+interface TaskHistoryRepository extends JpaRepository<TaskHistoryEO, Long> {
+
+    Optional<TaskHistoryEO> findBypKey(String pKey);
+
+    /**
+     * Find the finished Tasks that are ready to archive and lock them. Tasks that are parent of another Task in the hot table
+     * are left until their children are archived, and Tasks of a TaskGroup are left until all Tasks of the group are finished,
+     * so that the group keeps its members while it is worked on. Tasks locked by the archiver of another instance are skipped.
+     *
+     * @param before Only Tasks finished before
+     * @param limit The maximum number of Tasks
+     * @return The primary keys of the Tasks
+     */
+    @Query(value = """
+            select t.c_pk from tsk_task t
+            where t.c_state = 'FINISHED' and t.c_finished_at < :before
+            and not exists (select 1 from tsk_task c where c.c_parent_task = t.c_pk)
+            and (t.c_task_group is null or not exists (
+                select 1 from tsk_task o where o.c_task_group = t.c_task_group and o.c_state <> 'FINISHED'
+            ))
+            order by t.c_pk
+            fetch first :limit rows only for update skip locked
+            """, nativeQuery = true)
+    List<Long> findArchivableForUpdate(@Param("before") ZonedDateTime before, @Param("limit") int limit);
+
+    /**
+     * Count the archived Tasks of the given groups, all of them are finished.
+     *
+     * @param groups The primary keys of the TaskGroups
+     * @return Tuples of group primary key and number of archived Tasks
+     */
+    @Query("select h.taskGroup, count(h) from TaskHistoryEO h where h.taskGroup in :groups group by h.taskGroup")
+    List<Object[]> countByTaskGroup(@Param("groups") Collection<Long> groups);
+
+    @Modifying
+    @Query(value = """
+            insert into tsk_task_history (c_pk, c_pid, c_ol, c_created, c_updated, c_task_id, c_description, c_type, c_state,
+                c_parent_task, c_task_group, c_priority, c_due_at, c_assigned_to, c_assigned_at, c_started_at, c_finished_at, c_archived_at)
+            select t.c_pk, t.c_pid, t.c_ol, t.c_created, t.c_updated, t.c_task_id, t.c_description, t.c_type, t.c_state,
+                t.c_parent_task, t.c_task_group, t.c_priority, t.c_due_at, t.c_assigned_to, t.c_assigned_at, t.c_started_at, t.c_finished_at, :archivedAt
+            from tsk_task t where t.c_pk in (:pks)
+            """, nativeQuery = true)
+    int copyToHistory(@Param("pks") Collection<Long> pks, @Param("archivedAt") ZonedDateTime archivedAt);
+
+    /**
+     * Delete the Tasks. Not native, because Tasks are mapped with the JOINED strategy and the rows of subtypes must be deleted
+     * from the tables of the subtypes before the row in {@code TSK_TASK} is deleted, what the bulk delete of the root entity
+     * takes care of.
+     *
+     * @param pks The primary keys of the Tasks
+     * @return The number of deleted Tasks
+     */
+    @Modifying
+    @Query("delete from TaskEO t where t.pk in :pks")
+    int deleteTasks(@Param("pks") Collection<Long> pks);
+
+    @Modifying
+    @Query("delete from TaskHistoryEO h where h.archivedAt < :before")
+    int deleteArchivedBefore(@Param("before") ZonedDateTime before);
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.lang.String.format;
+
+/**
+ * A TaskIdAllocator hands out unique business keys for {@link TaskEO}s. Blocks of identifiers are reserved from the shared
+ * {@link TaskIdRangeEO} and served from memory afterwards, so that concurrent creations (even on multiple service instances)
+ * neither query the task table nor collide on the unique task identifier.
+ * <p>
+ * Blocks are reserved by a background thread, outside of any transaction of a caller. The next block is reserved as soon as
+ * half of the current block has been handed out, so that callers, which usually hold a database connection already, do not
+ * need a second one and cannot exhaust the connection pool while they wait for a block.
+ *
+ * @author Heiko Scherrer
+ */
+@Component
+class TaskIdAllocator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskIdAllocator.class);
+    static final String RANGE_NAME = "TASK_ID";
+    private static final long RESERVATION_TIMEOUT_SECONDS = 30;
+    private final TaskIdRangeRepository rangeRepository;
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate txTemplate;
+    private final int blockSize;
+    private final long lowWaterMark;
+    private final AtomicReference<Block> current = new AtomicReference<>(Block.EXHAUSTED);
+    private final AtomicReference<CompletableFuture<Block>> prefetched = new AtomicReference<>();
+    private final Lock refillLock = new ReentrantLock();
+    private final ExecutorService reserver = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("task-id-reserver").daemon().factory());
+
+    TaskIdAllocator(TaskIdRangeRepository rangeRepository, TaskRepository taskRepository, PlatformTransactionManager transactionManager,
+            @Value("${owms.tasks.id-allocation.block-size:100}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("The block size of the TaskIdAllocator must be greater than 0");
+        }
+        this.rangeRepository = rangeRepository;
+        this.taskRepository = taskRepository;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.blockSize = blockSize;
+        this.lowWaterMark = Math.max(1, blockSize / 2);
+    }
+
+    /**
+     * Reserve the first block before the first Task is created.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prefetch() {
+        prefetched.updateAndGet(pending -> pending != null ? pending : CompletableFuture.supplyAsync(this::reserve, reserver));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reserver.shutdownNow();
+    }
+
+    /**
+     * Allocate the next unique task identifier.
+     *
+     * @return The formatted identifier, like {@code T0000000001}
+     */
+    String nextTaskId() {
+        return toTaskId(nextId());
+    }
+
+    /**
+     * Allocate the next unique numeric identifier. Only the thread that exhausts the current block takes over the prefetched
+     * one, all others are served lock-free.
+     *
+     * @return The identifier
+     */
+    long nextId() {
+        while (true) {
+            var block = current.get();
+            var id = block.next();
+            if (id > 0) {
+                if (block.end - id == lowWaterMark) {
+                    prefetch();
+                }
+                return id;
+            }
+            refill(block);
+        }
+    }
+
+    /*
+     * Usually the prefetched block is ready. Only if a whole half block has been handed out during its reservation, the caller
+     * waits for the reservation, but still without a connection of its own.
+     */
+    private void refill(Block exhausted) {
+        refillLock.lock();
+        try {
+            if (current.get() == exhausted) {
+                prefetch();
+                var pending = prefetched.getAndSet(null);
+                current.set(pending.get(RESERVATION_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Cannot reserve a block of task identifiers", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Reservation of a block of task identifiers timed out", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a block of task identifiers", e);
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private Block reserve() {
+        try {
+            return reserveBlock();
+        } catch (DataIntegrityViolationException dive) {
+            // Another instance initialized the range concurrently, it exists now
+            LOGGER.debug("Range [{}] has been initialized concurrently, retry reservation", RANGE_NAME);
+            return reserveBlock();
+        }
+    }
+
+    private Block reserveBlock() {
+        var block = txTemplate.execute(status -> {
+            var range = rangeRepository.findByName(RANGE_NAME).orElseGet(this::initializeRange);
+            var start = range.getNextId();
+            range.setNextId(start + blockSize);
+            return new Block(start, start + blockSize);
+        });
+        LOGGER.debug("Reserved block of task identifiers [{}]", block);
+        return block;
+    }
+
+    /*
+     * Existing tasks have been created with identifiers derived from the primary key, hence the range continues after the
+     * highest existing one.
+     */
+    private TaskIdRangeEO initializeRange() {
+        var first = taskRepository.findMaxTaskId().map(TaskIdAllocator::parse).orElse(0L) + 1;
+        LOGGER.info("Initialize range of task identifiers with [{}]", first);
+        return rangeRepository.saveAndFlush(new TaskIdRangeEO(RANGE_NAME, first));
+    }
+
+    static String toTaskId(long id) {
+        return format("T%1$10s", id).replace(' ', '0');
+    }
+
+    private static long parse(String taskId) {
+        try {
+            return Long.parseLong(taskId.substring(1));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            LOGGER.warn("Highest existing task identifier [{}] is not numeric, start range with 1", taskId);
+            return 0;
+        }
+    }
+
+    private static final class Block {
+
+        static final Block EXHAUSTED = new Block(0, 0);
+        private final AtomicLong cursor;
+        final long end;
+
+        Block(long start, long end) {
+            this.cursor = new AtomicLong(start);
+            this.end = end;
+        }
+
+        /**
+         * Return the next identifier of this block or {@literal -1} if the block is exhausted.
+         */
+        long next() {
+            var id = cursor.getAndIncrement();
+            return id < end ? id : -1;
+        }
+
+        @Override
+        public String toString() {
+            return cursor.get() + ".." + (end - 1);
+        }
+    }
+}
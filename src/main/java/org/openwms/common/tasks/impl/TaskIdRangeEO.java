@@ -0,0 +1,79 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import org.ameba.integration.jpa.ApplicationEntity;
+
+import java.io.Serializable;
+import java.util.StringJoiner;
+
+/**
+ * A TaskIdRangeEO stores the next free identifier of a named range of identifiers. All service instances share this row
+ * to reserve blocks of identifiers.
+ *
+ * @author Heiko Scherrer
+ */
+@Entity
+@Table(name = "TSK_TASK_ID_RANGE", uniqueConstraints = @UniqueConstraint(name = "UC_TASK_ID_RANGE_NAME", columnNames = "C_NAME"))
+public class TaskIdRangeEO extends ApplicationEntity implements Serializable {
+
+    /** The unique name of the range. */
+    @NotNull
+    @Column(name = "C_NAME", nullable = false)
+    private String name;
+
+    /** The first identifier that has not been reserved yet. */
+    @Column(name = "C_NEXT_ID", nullable = false)
+    private long nextId;
+
+    /** Dear JPA... */
+    protected TaskIdRangeEO() {}
+
+    TaskIdRangeEO(String name, long nextId) {
+        this.name = name;
+        this.nextId = nextId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getNextId() {
+        return nextId;
+    }
+
+    void setNextId(long nextId) {
+        this.nextId = nextId;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * All fields.
+     */
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", TaskIdRangeEO.class.getSimpleName() + "[", "]")
+                .add("name='" + name + "'")
+                .add("nextId=" + nextId)
+                .toString();
+    }
+}
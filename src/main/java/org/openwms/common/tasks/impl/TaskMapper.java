@@ -32,6 +32,9 @@ public interface TaskMapper {
 
     TaskMO convertToMO(TaskEO eo);
 
+    @Mapping(target = "dispatchAt", ignore = true)
+    @Mapping(target = "assignedTo", ignore = true)
+    @Mapping(target = "assignedAt", ignore = true)
     TaskEO convertToEO(TaskVO vo);
 
     @Mapping(target = "pKey", source = "persistentKey")
@@ -39,4 +42,9 @@ public interface TaskMapper {
 
     @Mapping(target = "pKey", source = "persistentKey")
     List<TaskVO> convertToVO(List<TaskEO> tasks);
+
+    @Mapping(target = "pKey", source = "persistentKey")
+    TaskVO convertToVO(TaskHistoryEO eo);
+
+    TaskVO copy(TaskVO vo);
 }
@@ -15,22 +15,172 @@
  */
 package org.openwms.common.tasks.impl;
 
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.openwms.common.tasks.api.TaskState;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * A TaskRepository.
  *
  * @author Heiko Scherrer
  */
-public interface TaskRepository extends JpaRepository<TaskEO, Long> {
+public interface TaskRepository extends JpaRepository<TaskEO, Long>, JpaSpecificationExecutor<TaskEO> {
 
-    @Query("select t.pk from TaskEO t order by t.pk desc")
-    List<Long> findLastPK(Pageable pageable);
+    @Query("select max(t.taskId) from TaskEO t")
+    Optional<String> findMaxTaskId();
 
     Optional<TaskEO> findBypKey(String pKey);
+
+    List<TaskEO> findAllBypKeyIn(Collection<String> pKeys);
+
+    @Query("select t.ol from TaskEO t where t.pKey = :pKey")
+    Optional<Long> findVersionBypKey(@Param("pKey") String pKey);
+
+    @Query("select t.state from TaskEO t where t.pKey = :pKey")
+    Optional<TaskState> findStateBypKey(@Param("pKey") String pKey);
+
+    /**
+     * Count the Tasks in the given states per state and type.
+     *
+     * @param states The states to count
+     * @return Tuples of state, type and number of Tasks
+     */
+    @Query("select t.state, t.type, count(t) from TaskEO t where t.state in :states group by t.state, t.type")
+    List<Object[]> countByStateAndType(@Param("states") Collection<TaskState> states);
+
+    /**
+     * Find the current state of the Tasks and lock them until the end of the transaction.
+     *
+     * @param pKeys The persistent keys of the Tasks
+     * @return Tuples of persistent key and state
+     */
+    @Query(value = "select t.c_pid, t.c_state from tsk_task t where t.c_pid in (:pKeys) for update", nativeQuery = true)
+    List<Object[]> findStatesForUpdate(@Param("pKeys") Collection<String> pKeys);
+
+    /**
+     * Find the next unassigned Tasks in the given state and lock them until the end of the transaction. Rows already locked
+     * by a concurrent transaction are skipped instead of waited for ({@code FOR UPDATE SKIP LOCKED}).
+     *
+     * @param state The state of the Tasks
+     * @param type Only Tasks of this type or all types if {@literal null}
+     * @param taskGroup Only Tasks of the TaskGroup with this primary key or all Tasks if {@literal null}
+     * @param limit The maximum number of Tasks
+     * @return The locked Tasks, ordered by the time they are dispatched at
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2")) // LockOptions.SKIP_LOCKED
+    @Query("""
+            select t from TaskEO t where t.state = :state and t.assignedTo is null
+            and (:type is null or t.type = :type) and (:taskGroup is null or t.taskGroup.pk = :taskGroup)
+            order by t.dispatchAt, t.pk
+            """)
+    List<TaskEO> findClaimable(@Param("state") TaskState state, @Param("type") String type, @Param("taskGroup") Long taskGroup,
+            Limit limit);
+
+    /**
+     * Find the Task if it is unassigned and in the given state and lock it until the end of the transaction. A row already
+     * locked by a concurrent transaction is skipped instead of waited for ({@code FOR UPDATE SKIP LOCKED}).
+     *
+     * @param pKey The persistent key of the Task
+     * @param state The state of the Task
+     * @return The locked Task or nothing if it cannot be claimed or is locked
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2")) // LockOptions.SKIP_LOCKED
+    @Query("select t from TaskEO t where t.pKey = :pKey and t.state = :state and t.assignedTo is null")
+    Optional<TaskEO> findClaimableBypKey(@Param("pKey") String pKey, @Param("state") TaskState state);
+
+    /**
+     * Find all unassigned Tasks in the given state with the attributes they are dispatched by.
+     *
+     * @param state The state of the Tasks
+     * @return Tuples of persistent key, type, dispatch time and primary key
+     */
+    @Query("select t.pKey, t.type, t.dispatchAt, t.pk from TaskEO t where t.state = :state and t.assignedTo is null order by t.pk")
+    List<Object[]> findDispatchable(@Param("state") TaskState state);
+
+    /**
+     * Find those of the given Tasks that are unassigned and in the given state with the attributes they are dispatched by.
+     *
+     * @param state The state of the Tasks
+     * @param pKeys The persistent keys of the Tasks
+     * @return Tuples of persistent key, type, dispatch time and primary key
+     */
+    @Query("select t.pKey, t.type, t.dispatchAt, t.pk from TaskEO t where t.state = :state and t.assignedTo is null and t.pKey in :pKeys")
+    List<Object[]> findDispatchable(@Param("state") TaskState state, @Param("pKeys") Collection<String> pKeys);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned TaskEO t set t.state = :state where t.pKey in :pKeys and t.state in :expected")
+    int updateState(@Param("pKeys") Collection<String> pKeys, @Param("expected") Collection<TaskState> expected,
+            @Param("state") TaskState state);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned TaskEO t set t.state = :state, t.startedAt = :startedAt where t.pKey in :pKeys and t.state in :expected")
+    int updateStateAndStartedAt(@Param("pKeys") Collection<String> pKeys, @Param("expected") Collection<TaskState> expected,
+            @Param("state") TaskState state, @Param("startedAt") ZonedDateTime startedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned TaskEO t set t.state = :state, t.finishedAt = :finishedAt where t.pKey in :pKeys and t.state in :expected")
+    int updateStateAndFinishedAt(@Param("pKeys") Collection<String> pKeys, @Param("expected") Collection<TaskState> expected,
+            @Param("state") TaskState state, @Param("finishedAt") ZonedDateTime finishedAt);
+
+    /**
+     * Find a Task and all its descendants up to a maximum depth.
+     *
+     * @param pKey The persistent key of the root Task
+     * @param maxDepth The maximum distance to the root Task
+     * @return Tuples of primary key, primary key of the parent and depth, ordered by depth
+     */
+    @Query(value = """
+            with recursive tree (c_pk, c_parent, c_depth) as (
+                select t.c_pk, t.c_parent_task, 0 from tsk_task t where t.c_pid = :pKey
+                union all
+                select c.c_pk, c.c_parent_task, tree.c_depth + 1 from tsk_task c join tree on c.c_parent_task = tree.c_pk
+                where tree.c_depth < :maxDepth
+            )
+            select c_pk, c_parent, c_depth from tree order by c_depth, c_pk
+            """, nativeQuery = true)
+    List<Object[]> findSubtree(@Param("pKey") String pKey, @Param("maxDepth") int maxDepth);
+
+    /**
+     * Find a Task and its ancestors up to a maximum depth.
+     *
+     * @param pKey The persistent key of the Task
+     * @param maxDepth The maximum distance to the Task
+     * @return Tuples of primary key, primary key of the parent and depth, ordered from the Task to the topmost ancestor
+     */
+    @Query(value = """
+            with recursive path (c_pk, c_parent, c_depth) as (
+                select t.c_pk, t.c_parent_task, 0 from tsk_task t where t.c_pid = :pKey
+                union all
+                select p.c_pk, p.c_parent_task, path.c_depth + 1 from tsk_task p join path on p.c_pk = path.c_parent
+                where path.c_depth < :maxDepth
+            )
+            select c_pk, c_parent, c_depth from path order by c_depth
+            """, nativeQuery = true)
+    List<Object[]> findAncestors(@Param("pKey") String pKey, @Param("maxDepth") int maxDepth);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select t from TaskEO t order by t.pk")
+    Stream<TaskEO> streamAll();
 }
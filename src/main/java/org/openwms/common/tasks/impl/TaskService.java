@@ -17,10 +17,18 @@ package org.openwms.common.tasks.impl;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import org.openwms.common.tasks.api.TaskBatchTransitionVO;
+import org.openwms.common.tasks.api.TaskClaimVO;
+import org.openwms.common.tasks.api.TaskFilterVO;
+import org.openwms.common.tasks.api.TaskNodeVO;
+import org.openwms.common.tasks.api.TaskTransitionResultVO;
 import org.openwms.common.tasks.api.TaskVO;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * A TaskService.
@@ -29,12 +37,72 @@ import java.util.List;
  */
 public interface TaskService {
 
-    List<TaskVO> findAll();
+    /** The default number of Tasks of one page. */
+    int DEFAULT_PAGE_SIZE = 100;
+    /** The maximum number of Tasks of one page. */
+    int MAX_PAGE_SIZE = 1000;
+    /** The depth of a Task hierarchy if not requested otherwise. */
+    int DEFAULT_DEPTH = 10;
+    /** The maximum depth of a Task hierarchy. */
+    int MAX_DEPTH = 50;
+
+    /**
+     * Find one page of Tasks that match the {@code filter}, ordered by their creation. The page is located with the
+     * continuation token of the previous page, hence the costs of a page do not depend on its position.
+     *
+     * @param filter Optional criteria the Tasks must match
+     * @param cursor The continuation token of the previous page or {@literal null} to start with the first page
+     * @param limit The maximum number of Tasks to return, defaults to {@value #DEFAULT_PAGE_SIZE}
+     * @return The page
+     */
+    TaskSlice findAll(TaskFilterVO filter, String cursor, Integer limit);
+
+    /**
+     * Pass all existing Tasks one after another to the {@code consumer}. Tasks are read from a database cursor and released
+     * after they have been consumed, so the memory consumption does not depend on the number of Tasks.
+     *
+     * @param consumer Consumes each Task
+     */
+    void exportAll(@NotNull Consumer<TaskVO> consumer);
 
     TaskVO findByPKeyOrThrow(@NotBlank String pKey);
 
+    /**
+     * Find a Task and all its descendants.
+     *
+     * @param pKey The persistent key of the root Task
+     * @param depth The maximum depth, defaults to {@value #DEFAULT_DEPTH} and is limited to {@value #MAX_DEPTH}
+     * @return The root Task first, followed by its descendants ordered by depth
+     */
+    List<TaskNodeVO> findSubtree(@NotBlank String pKey, Integer depth);
+
+    /**
+     * Find a Task and all its ancestors.
+     *
+     * @param pKey The persistent key of the Task
+     * @param depth The maximum depth, defaults to {@value #DEFAULT_DEPTH} and is limited to {@value #MAX_DEPTH}
+     * @return The Task first, followed by its parent and so on
+     */
+    List<TaskNodeVO> findAncestors(@NotBlank String pKey, Integer depth);
+
+    /**
+     * Find the current version of a Task without loading it.
+     *
+     * @param pKey The persistent key of the Task
+     * @return The version of the optimistic lock or nothing if the Task does not exist
+     */
+    Optional<Long> findVersion(@NotBlank String pKey);
+
     TaskVO create(@NotNull @Valid TaskVO task);
 
+    /**
+     * Create all given Tasks within one transaction.
+     *
+     * @param tasks The Tasks to create
+     * @return The created Tasks in the same order
+     */
+    List<TaskVO> createAll(@NotEmpty List<@NotNull @Valid TaskVO> tasks);
+
     TaskVO update(@NotNull TaskVO task);
 
     TaskVO start(@NotBlank String pKey);
@@ -45,4 +113,53 @@ public interface TaskService {
 
     TaskVO finish(@NotBlank String pKey);
 
+    /**
+     * Assign the next unassigned Task in state {@code CREATED} that matches the optional type and TaskGroup of the
+     * {@code claim} to the assignee. Concurrent claims never wait for each other and never get the same Task.
+     *
+     * @param claim Who claims and which Tasks are considered
+     * @return The assigned Task or nothing if no Task is available
+     */
+    Optional<TaskVO> claimNext(@NotNull @Valid TaskClaimVO claim);
+
+    /**
+     * Withdraw the assignment of a Task that has not been started yet, so that it can be claimed again.
+     *
+     * @param pKey The persistent key of the Task
+     * @return The released Task
+     */
+    TaskVO release(@NotBlank String pKey);
+
+    /**
+     * Start all selected Tasks. Tasks that cannot be started are rejected individually, without affecting the others.
+     *
+     * @param selection Selects the Tasks by persistent keys or by a filter
+     * @return The result for each selected Task
+     */
+    List<TaskTransitionResultVO> startAll(@NotNull TaskBatchTransitionVO selection);
+
+    /**
+     * Pause all selected Tasks. Tasks that cannot be paused are rejected individually, without affecting the others.
+     *
+     * @param selection Selects the Tasks by persistent keys or by a filter
+     * @return The result for each selected Task
+     */
+    List<TaskTransitionResultVO> pauseAll(@NotNull TaskBatchTransitionVO selection);
+
+    /**
+     * Resume all selected Tasks. Tasks that cannot be resumed are rejected individually, without affecting the others.
+     *
+     * @param selection Selects the Tasks by persistent keys or by a filter
+     * @return The result for each selected Task
+     */
+    List<TaskTransitionResultVO> resumeAll(@NotNull TaskBatchTransitionVO selection);
+
+    /**
+     * Finish all selected Tasks. Already finished Tasks are accepted as well.
+     *
+     * @param selection Selects the Tasks by persistent keys or by a filter
+     * @return The result for each selected Task
+     */
+    List<TaskTransitionResultVO> finishAll(@NotNull TaskBatchTransitionVO selection);
+
 }
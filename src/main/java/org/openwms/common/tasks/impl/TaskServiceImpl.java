@@ -15,8 +15,10 @@
  */
 package org.openwms.common.tasks.impl;
 
+import jakarta.persistence.EntityManager;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import org.ameba.annotation.Measured;
 import org.ameba.annotation.TxService;
@@ -25,28 +27,51 @@ import org.ameba.exception.NotFoundException;
 import org.ameba.exception.ResourceExistsException;
 import org.ameba.i18n.Translator;
 import org.openwms.common.tasks.TimeProvider;
+import org.openwms.common.tasks.api.TaskBatchTransitionVO;
+import org.openwms.common.tasks.api.TaskClaimVO;
+import org.openwms.common.tasks.api.TaskFilterVO;
+import org.openwms.common.tasks.api.TaskNodeVO;
 import org.openwms.common.tasks.api.TaskState;
+import org.openwms.common.tasks.api.TaskTransitionResultVO;
 import org.openwms.common.tasks.api.TaskVO;
 import org.openwms.common.tasks.api.ValidationGroups;
+import org.openwms.common.tasks.events.TaskBatchEvent;
 import org.openwms.common.tasks.events.TaskEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.function.Consumer;
 
-import static java.lang.String.format;
 import static org.openwms.common.tasks.TaskMessageCodes.TASK_ALREADY_FINISHED;
-import static org.openwms.common.tasks.TaskMessageCodes.TASK_ALREADY_PAUSED;
 import static org.openwms.common.tasks.TaskMessageCodes.TASK_ALREADY_STARTED;
+import static org.openwms.common.tasks.TaskMessageCodes.TASK_BATCH_WITHOUT_SELECTION;
 import static org.openwms.common.tasks.TaskMessageCodes.TASK_EXISTS;
-import static org.openwms.common.tasks.TaskMessageCodes.TASK_IS_NOT_PAUSED;
+import static org.openwms.common.tasks.TaskMessageCodes.TASK_GROUP_NOT_FOUND;
+import static org.openwms.common.tasks.TaskMessageCodes.TASK_INVALID_CURSOR;
 import static org.openwms.common.tasks.TaskMessageCodes.TASK_IS_PAUSED;
-import static org.openwms.common.tasks.TaskMessageCodes.TASK_NOT_ACTIVE;
+import static org.openwms.common.tasks.TaskMessageCodes.TASK_NOT_ASSIGNED;
 import static org.openwms.common.tasks.TaskMessageCodes.TASK_NOT_FOUND;
+import static org.springframework.util.StringUtils.hasText;
 
 /**
  * A TaskServiceImpl.
@@ -57,17 +82,38 @@ import static org.openwms.common.tasks.TaskMessageCodes.TASK_NOT_FOUND;
 @TxService
 class TaskServiceImpl implements TaskService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskServiceImpl.class);
+    private static final String CURSOR_PREFIX = "pk:";
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Direction.ASC, "pk");
+    private static final int EXPORT_CLEAR_INTERVAL = 1000;
+    private static final int BATCH_CHUNK_SIZE = 500;
+    /** How many candidates of the dispatch queue are tried before the database is queried. */
+    private static final int CLAIM_ATTEMPTS = 10;
     private final TimeProvider timeProvider = ServiceLoader.load(TimeProvider.class).iterator().next();
     private final ApplicationEventPublisher eventPublisher;
     private final Translator translator;
     private final TaskMapper mapper;
     private final TaskRepository taskRepository;
+    private final TaskIdAllocator taskIdAllocator;
+    private final EntityManager entityManager;
+    private final TaskCache taskCache;
+    private final TaskHistoryRepository historyRepository;
+    private final TaskGroupRepository groupRepository;
+    private final TaskDispatchQueue dispatchQueue;
 
-    TaskServiceImpl(ApplicationEventPublisher eventPublisher, Translator translator, TaskMapper mapper, TaskRepository taskRepository) {
+    TaskServiceImpl(ApplicationEventPublisher eventPublisher, Translator translator, TaskMapper mapper, TaskRepository taskRepository,
+            TaskIdAllocator taskIdAllocator, EntityManager entityManager, TaskCache taskCache,
+            TaskHistoryRepository historyRepository, TaskGroupRepository groupRepository, TaskDispatchQueue dispatchQueue) {
         this.eventPublisher = eventPublisher;
         this.translator = translator;
         this.mapper = mapper;
         this.taskRepository = taskRepository;
+        this.taskIdAllocator = taskIdAllocator;
+        this.entityManager = entityManager;
+        this.taskCache = taskCache;
+        this.historyRepository = historyRepository;
+        this.groupRepository = groupRepository;
+        this.dispatchQueue = dispatchQueue;
     }
 
     /**
@@ -75,12 +121,35 @@ class TaskServiceImpl implements TaskService {
      */
     @Override
     @Measured
-    public List<TaskVO> findAll() {
-        var result = taskRepository.findAll(Sort.by(Sort.Direction.ASC, "taskId"));
-        if (result.isEmpty()) {
-            return Collections.emptyList();
+    public TaskSlice findAll(TaskFilterVO filter, String cursor, Integer limit) {
+        var pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        var position = cursor == null || cursor.isBlank()
+                ? ScrollPosition.keyset()
+                : ScrollPosition.forward(Map.of("pk", decodeCursor(cursor)));
+        Window<TaskEO> window = taskRepository.findBy(TaskSpecifications.matching(filter),
+                q -> q.sortBy(KEYSET_ORDER).limit(pageSize).scroll(position));
+        if (window.isEmpty()) {
+            return new TaskSlice(Collections.emptyList(), null);
         }
-        return mapper.convertToVO(result);
+        var content = window.getContent();
+        var next = window.hasNext() ? encodeCursor(content.get(content.size() - 1).getPk()) : null;
+        return new TaskSlice(mapper.convertToVO(content), next);
+    }
+
+    private static String encodeCursor(Long pk) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((CURSOR_PREFIX + pk).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Long decodeCursor(String cursor) {
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                return Long.valueOf(decoded.substring(CURSOR_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // handled below, NumberFormatException is an IllegalArgumentException as well
+        }
+        throw new BusinessRuntimeException(translator, TASK_INVALID_CURSOR, new String[]{cursor}, cursor);
     }
 
     /**
@@ -88,8 +157,92 @@ class TaskServiceImpl implements TaskService {
      */
     @Override
     @Measured
+    @Transactional(readOnly = true)
+    public void exportAll(@NotNull Consumer<TaskVO> consumer) {
+        try (var tasks = taskRepository.streamAll()) {
+            var count = 0;
+            for (var it = tasks.iterator(); it.hasNext(); ) {
+                var eo = it.next();
+                consumer.accept(mapper.convertToVO(eo));
+                entityManager.detach(eo);
+                if (++count % EXPORT_CLEAR_INTERVAL == 0) {
+                    // Also release eagerly loaded associations that are not detached with the Task itself
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Served from the {@link TaskCache} if possible. Tasks that are not found in the hot table are looked up in the history of
+     * archived Tasks.
+     */
+    @Override
+    @Measured
     public TaskVO findByPKeyOrThrow(@NotBlank String pKey) {
-        return mapper.convertToVO(findInternal(pKey));
+        return taskCache.get(pKey, () -> taskRepository.findBypKey(pKey)
+                .map(mapper::convertToVO)
+                .or(() -> historyRepository.findBypKey(pKey).map(mapper::convertToVO))
+                .orElseThrow(() -> new NotFoundException(translator, TASK_NOT_FOUND, new String[]{pKey}, pKey)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Measured
+    public Optional<Long> findVersion(@NotBlank String pKey) {
+        return taskRepository.findVersionBypKey(pKey);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Measured
+    public List<TaskNodeVO> findSubtree(@NotBlank String pKey, Integer depth) {
+        return toNodes(pKey, taskRepository.findSubtree(pKey, limitDepth(depth)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Measured
+    public List<TaskNodeVO> findAncestors(@NotBlank String pKey, Integer depth) {
+        return toNodes(pKey, taskRepository.findAncestors(pKey, limitDepth(depth)));
+    }
+
+    private static int limitDepth(Integer depth) {
+        return depth == null ? DEFAULT_DEPTH : Math.max(0, Math.min(depth, MAX_DEPTH));
+    }
+
+    /*
+     * The hierarchy query only returns keys, the Tasks of the nodes are then loaded in chunks, so that a wide subtree does not
+     * end up in one unbounded IN list. Each chunk costs one query.
+     */
+    private List<TaskNodeVO> toNodes(String pKey, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            throw new NotFoundException(translator, TASK_NOT_FOUND, new String[]{pKey}, pKey);
+        }
+        var pks = rows.stream().map(row -> ((Number) row[0]).longValue()).toList();
+        var tasks = new HashMap<Long, TaskEO>(pks.size());
+        for (int i = 0; i < pks.size(); i += BATCH_CHUNK_SIZE) {
+            taskRepository.findAllById(pks.subList(i, Math.min(i + BATCH_CHUNK_SIZE, pks.size()))).forEach(t -> tasks.put(t.getPk(), t));
+        }
+        var result = new ArrayList<TaskNodeVO>(rows.size());
+        for (var row : rows) {
+            var task = tasks.get(((Number) row[0]).longValue());
+            if (task == null) {
+                // Deleted in between
+                continue;
+            }
+            var parent = row[1] == null ? null : tasks.get(((Number) row[1]).longValue());
+            result.add(new TaskNodeVO(((Number) row[2]).intValue(), parent == null ? null : parent.getPersistentKey(), mapper.convertToVO(task)));
+        }
+        return result;
     }
 
     private TaskEO findInternal(String pKey) {
@@ -111,13 +264,38 @@ class TaskServiceImpl implements TaskService {
             throw new ResourceExistsException(translator, TASK_EXISTS);
         }
         var eo = mapper.convertToEO(task);
-        var pk = taskRepository.findLastPK(PageRequest.of(0, 1));
-        eo.setTaskId(format("T%1$10s", ((pk == null || pk.isEmpty() ? 0 : pk.get(0)) + 1)).replace(' ', '0'));
+        eo.setTaskId(taskIdAllocator.nextTaskId());
+        eo.setDispatchAt(dispatchQueue.dispatchAt(eo.getPriority(), eo.getDueAt(), timeProvider.nowAsZonedDateTime()));
         var created = taskRepository.save(eo);
         eventPublisher.publishEvent(new TaskEvent(created, TaskEvent.Type.CREATED));
         return mapper.convertToVO(created);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The inserts are sent in JDBC batches and one {@link TaskBatchEvent} is published for all created Tasks.
+     */
+    @Override
+    @Measured
+    @Validated(ValidationGroups.Create.class)
+    public List<TaskVO> createAll(@NotEmpty List<@NotNull @Valid TaskVO> tasks) {
+        var eos = new ArrayList<TaskEO>(tasks.size());
+        var now = timeProvider.nowAsZonedDateTime();
+        for (var task : tasks) {
+            if (task.getpKey() != null && !task.getpKey().isEmpty()) {
+                throw new ResourceExistsException(translator, TASK_EXISTS);
+            }
+            var eo = mapper.convertToEO(task);
+            eo.setTaskId(taskIdAllocator.nextTaskId());
+            eo.setDispatchAt(dispatchQueue.dispatchAt(eo.getPriority(), eo.getDueAt(), now));
+            eos.add(eo);
+        }
+        var created = taskRepository.saveAll(eos);
+        eventPublisher.publishEvent(new TaskBatchEvent(created, TaskEvent.Type.CREATED));
+        return mapper.convertToVO(created);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -126,6 +304,7 @@ class TaskServiceImpl implements TaskService {
     public TaskVO update(@NotNull TaskVO task) {
         var existing = findInternal(task.getpKey());
         existing.setDescription(task.getDescription());
+        taskCache.evictAfterCommit(List.of(existing.getPersistentKey()));
         return mapper.convertToVO(existing);
     }
 
@@ -135,21 +314,7 @@ class TaskServiceImpl implements TaskService {
     @Override
     @Measured
     public TaskVO start(@NotBlank String pKey) {
-        var existing = findInternal(pKey);
-        if (existing.getState() == TaskState.FINISHED) {
-            throw new BusinessRuntimeException(translator, TASK_ALREADY_FINISHED, new String[]{pKey}, pKey);
-        }
-        if (existing.getState() == TaskState.ACTIVE) {
-            throw new BusinessRuntimeException(translator, TASK_ALREADY_STARTED, new String[]{pKey}, pKey);
-        }
-        if (existing.getState() == TaskState.PAUSED) {
-            throw new BusinessRuntimeException(translator, TASK_IS_PAUSED, new String[]{pKey}, pKey);
-        }
-        existing.setState(TaskState.ACTIVE);
-        existing.setStartedAt(timeProvider.nowAsZonedDateTime());
-        existing = taskRepository.save(existing);
-        eventPublisher.publishEvent(new TaskEvent(existing, TaskEvent.Type.STARTED));
-        return mapper.convertToVO(existing);
+        return mapper.convertToVO(transition(TaskTransition.START, pKey));
     }
 
     /**
@@ -158,20 +323,7 @@ class TaskServiceImpl implements TaskService {
     @Override
     @Measured
     public TaskVO pause(@NotBlank String pKey) {
-        var existing = findInternal(pKey);
-        if (existing.getState() == TaskState.FINISHED) {
-            throw new BusinessRuntimeException(translator, TASK_ALREADY_FINISHED, new String[]{pKey}, pKey);
-        }
-        if (existing.getState() == TaskState.CREATED) {
-            throw new BusinessRuntimeException(translator, TASK_NOT_ACTIVE, new String[]{pKey}, pKey);
-        }
-        if (existing.getState() != TaskState.ACTIVE) {
-            throw new BusinessRuntimeException(translator, TASK_ALREADY_PAUSED, new String[]{pKey}, pKey);
-        }
-        existing.setState(TaskState.PAUSED);
-        existing = taskRepository.save(existing);
-        eventPublisher.publishEvent(new TaskEvent(existing, TaskEvent.Type.PAUSED));
-        return mapper.convertToVO(existing);
+        return mapper.convertToVO(transition(TaskTransition.PAUSE, pKey));
     }
 
     /**
@@ -180,20 +332,123 @@ class TaskServiceImpl implements TaskService {
     @Override
     @Measured
     public TaskVO resume(@NotBlank String pKey) {
-        var existing = findInternal(pKey);
-        if (existing.getState() == TaskState.FINISHED) {
-            throw new BusinessRuntimeException(translator, TASK_ALREADY_FINISHED, new String[]{pKey}, pKey);
+        return mapper.convertToVO(transition(TaskTransition.RESUME, pKey));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Measured
+    public TaskVO finish(@NotBlank String pKey) {
+        return mapper.convertToVO(transition(TaskTransition.FINISH, pKey));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Candidates are taken from the {@link TaskDispatchQueue} and locked with {@code FOR UPDATE SKIP LOCKED}: a candidate that
+     * is being claimed by a concurrent transaction, possibly of another instance with the same queue head, is locked and hence
+     * skipped, as is a candidate that has been changed in the meantime. The queue is not keyed by TaskGroup, so a claim for a
+     * TaskGroup and a claim the queue cannot serve select the Task from the database in the same order and with the same lock.
+     * Claimers never wait for each other.
+     */
+    @Override
+    @Measured
+    public Optional<TaskVO> claimNext(@NotNull @Valid TaskClaimVO claim) {
+        var type = hasText(claim.getType()) ? claim.getType() : null;
+        var now = timeProvider.nowAsZonedDateTime();
+        Long taskGroup = null;
+        if (hasText(claim.getTaskGroup())) {
+            taskGroup = groupRepository.findBypKey(claim.getTaskGroup())
+                    .orElseThrow(() -> new NotFoundException(translator, TASK_GROUP_NOT_FOUND, new String[]{claim.getTaskGroup()}, claim.getTaskGroup()))
+                    .getPk();
+        } else {
+            for (var i = 0; i < CLAIM_ATTEMPTS; i++) {
+                var candidate = dispatchQueue.poll(type);
+                if (candidate.isEmpty()) {
+                    break;
+                }
+                var task = taskRepository.findClaimableBypKey(candidate.get(), TaskState.CREATED);
+                if (task.isPresent()) {
+                    return Optional.of(claimed(task.get(), claim, now));
+                }
+            }
         }
-        if (existing.getState() == TaskState.CREATED) {
-            throw new BusinessRuntimeException(translator, TASK_NOT_ACTIVE, new String[]{pKey}, pKey);
+        var candidates = taskRepository.findClaimable(TaskState.CREATED, type, taskGroup, Limit.of(1));
+        if (candidates.isEmpty()) {
+            return Optional.empty();
         }
-        if (existing.getState() != TaskState.PAUSED) {
-            throw new BusinessRuntimeException(translator, TASK_IS_NOT_PAUSED, new String[]{pKey}, pKey);
+        return Optional.of(claimed(candidates.get(0), claim, now));
+    }
+
+    private TaskVO claimed(TaskEO task, TaskClaimVO claim, ZonedDateTime now) {
+        task.setAssignedTo(claim.getAssignee());
+        task.setAssignedAt(now);
+        eventPublisher.publishEvent(new TaskEvent(task, TaskEvent.Type.ASSIGNED, task.getState()));
+        LOGGER.debug("Task [{}] claimed by [{}]", task.getPersistentKey(), claim.getAssignee());
+        return mapper.convertToVO(task);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Measured
+    public TaskVO release(@NotBlank String pKey) {
+        var task = findInternal(pKey);
+        var rejectionCode = switch (task.getState()) {
+            case ACTIVE -> TASK_ALREADY_STARTED;
+            case PAUSED -> TASK_IS_PAUSED;
+            case FINISHED -> TASK_ALREADY_FINISHED;
+            default -> task.getAssignedTo() == null ? TASK_NOT_ASSIGNED : null;
+        };
+        if (rejectionCode != null) {
+            throw new BusinessRuntimeException(translator, rejectionCode, new String[]{pKey}, pKey);
         }
-        existing.setState(TaskState.ACTIVE);
-        existing = taskRepository.save(existing);
-        eventPublisher.publishEvent(new TaskEvent(existing, TaskEvent.Type.RESUMED));
-        return mapper.convertToVO(existing);
+        task.setAssignedTo(null);
+        task.setAssignedAt(null);
+        eventPublisher.publishEvent(new TaskEvent(task, TaskEvent.Type.RELEASED, task.getState()));
+        return mapper.convertToVO(task);
+    }
+
+    /*
+     * The state guard is part of the update statement, so the number of changed rows decides about success and concurrent
+     * transitions of the same Task do not race on the optimistic lock. The update is first guarded by the state a Task usually
+     * has, which costs no read. Only if nothing has been changed, the current state is read and locked: a Task in another
+     * applicable state is then changed from exactly that state, so the event carries the state it actually had before, and
+     * a Task that has been changed concurrently is not mistaken as already transitioned.
+     */
+    private TaskEO transition(TaskTransition transition, String pKey) {
+        var previous = transition.getUsualSourceState();
+        if (applyTransition(transition, List.of(pKey), EnumSet.of(previous)) == 0) {
+            var current = taskRepository.findStatesForUpdate(List.of(pKey)).stream()
+                    .map(row -> TaskState.valueOf((String) row[1]))
+                    .findFirst()
+                    .orElseThrow(() -> new NotFoundException(translator, TASK_NOT_FOUND, new String[]{pKey}, pKey));
+            if (!transition.isApplicable(current)) {
+                var rejectionCode = transition.rejectionCode(current);
+                if (rejectionCode != null) {
+                    throw new BusinessRuntimeException(translator, rejectionCode, new String[]{pKey}, pKey);
+                }
+                // Already in the target state, like finishing twice
+                return findInternal(pKey);
+            }
+            // Locked, hence cannot miss
+            applyTransition(transition, List.of(pKey), EnumSet.of(current));
+            previous = current;
+        }
+        var changed = findInternal(pKey);
+        eventPublisher.publishEvent(new TaskEvent(changed, transition.getEventType(), previous));
+        return changed;
+    }
+
+    private int applyTransition(TaskTransition transition, List<String> pKeys, Set<TaskState> expected) {
+        return switch (transition) {
+            case START -> taskRepository.updateStateAndStartedAt(pKeys, expected, transition.getTargetState(), timeProvider.nowAsZonedDateTime());
+            case FINISH -> taskRepository.updateStateAndFinishedAt(pKeys, expected, transition.getTargetState(), timeProvider.nowAsZonedDateTime());
+            default -> taskRepository.updateState(pKeys, expected, transition.getTargetState());
+        };
     }
 
     /**
@@ -201,14 +456,106 @@ class TaskServiceImpl implements TaskService {
      */
     @Override
     @Measured
-    public TaskVO finish(@NotBlank String pKey) {
-        var existing = findInternal(pKey);
-        if (existing.getState() != TaskState.FINISHED) {
-            existing.setState(TaskState.FINISHED);
-            existing.setFinishedAt(timeProvider.nowAsZonedDateTime());
-            existing = taskRepository.save(existing);
-            eventPublisher.publishEvent(new TaskEvent(existing, TaskEvent.Type.FINISHED));
+    public List<TaskTransitionResultVO> startAll(@NotNull TaskBatchTransitionVO selection) {
+        return transitionAll(TaskTransition.START, selection);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Measured
+    public List<TaskTransitionResultVO> pauseAll(@NotNull TaskBatchTransitionVO selection) {
+        return transitionAll(TaskTransition.PAUSE, selection);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Measured
+    public List<TaskTransitionResultVO> resumeAll(@NotNull TaskBatchTransitionVO selection) {
+        return transitionAll(TaskTransition.RESUME, selection);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Measured
+    public List<TaskTransitionResultVO> finishAll(@NotNull TaskBatchTransitionVO selection) {
+        return transitionAll(TaskTransition.FINISH, selection);
+    }
+
+    /*
+     * The selected Tasks are processed in chunks. Each chunk costs three statements regardless of its size: the current states
+     * are read and locked, all allowed Tasks are changed with one update that is guarded by the current state and finally the
+     * changed Tasks are read for the event.
+     */
+    private List<TaskTransitionResultVO> transitionAll(TaskTransition transition, TaskBatchTransitionVO selection) {
+        var pKeys = selection.hasPKeys()
+                ? List.copyOf(new LinkedHashSet<>(selection.getpKeys()))
+                : findPKeys(transition, selection.getFilter());
+        var results = new ArrayList<TaskTransitionResultVO>(pKeys.size());
+        var changed = new ArrayList<TaskEO>();
+        var previousStates = new HashMap<String, TaskState>();
+        for (int i = 0; i < pKeys.size(); i += BATCH_CHUNK_SIZE) {
+            var chunk = pKeys.subList(i, Math.min(i + BATCH_CHUNK_SIZE, pKeys.size()));
+            changed.addAll(transitionChunk(transition, chunk, results, previousStates));
         }
-        return mapper.convertToVO(existing);
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new TaskBatchEvent(changed, transition.getEventType(), previousStates));
+        }
+        return results;
+    }
+
+    private List<String> findPKeys(TaskTransition transition, TaskFilterVO filter) {
+        if (filter == null) {
+            throw new BusinessRuntimeException(translator, TASK_BATCH_WITHOUT_SELECTION, new String[0]);
+        }
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(String.class);
+        var root = query.from(TaskEO.class);
+        query.select(root.get("pKey"))
+                .where(
+                        TaskSpecifications.matching(filter).toPredicate(root, query, cb),
+                        root.get("state").in(transition.getSourceStates())
+                )
+                .orderBy(cb.asc(root.get("pk")));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private List<TaskEO> transitionChunk(TaskTransition transition, List<String> pKeys, List<TaskTransitionResultVO> results,
+            Map<String, TaskState> previousStates) {
+        var states = new HashMap<String, TaskState>(pKeys.size());
+        for (var row : taskRepository.findStatesForUpdate(pKeys)) {
+            states.put((String) row[0], TaskState.valueOf((String) row[1]));
+        }
+        var allowed = new ArrayList<String>(pKeys.size());
+        for (var pKey : pKeys) {
+            var current = states.get(pKey);
+            if (current == null) {
+                results.add(rejected(pKey, TASK_NOT_FOUND));
+            } else if (transition.isApplicable(current)) {
+                allowed.add(pKey);
+                previousStates.put(pKey, current);
+                results.add(TaskTransitionResultVO.accepted(pKey));
+            } else {
+                var rejectionCode = transition.rejectionCode(current);
+                results.add(rejectionCode == null ? TaskTransitionResultVO.accepted(pKey) : rejected(pKey, rejectionCode));
+            }
+        }
+        if (allowed.isEmpty()) {
+            return Collections.emptyList();
+        }
+        var updated = applyTransition(transition, allowed, transition.getSourceStates());
+        if (updated != allowed.size()) {
+            LOGGER.warn("Expected to change [{}] Tasks but [{}] have been changed", allowed.size(), updated);
+        }
+        return taskRepository.findAllBypKeyIn(allowed);
+    }
+
+    private TaskTransitionResultVO rejected(String pKey, String messageKey) {
+        return TaskTransitionResultVO.rejected(pKey, messageKey, translator.translate(messageKey, pKey));
     }
 }
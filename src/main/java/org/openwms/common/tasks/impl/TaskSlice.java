@@ -0,0 +1,53 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import org.openwms.common.tasks.api.TaskVO;
+
+import java.util.List;
+
+/**
+ * A TaskSlice is one page of a keyset paginated list of Tasks together with the continuation token to fetch the next one.
+ *
+ * @author Heiko Scherrer
+ */
+public final class TaskSlice {
+
+    private final List<TaskVO> content;
+    private final String nextCursor;
+
+    TaskSlice(List<TaskVO> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<TaskVO> getContent() {
+        return content;
+    }
+
+    /**
+     * Get the opaque continuation token.
+     *
+     * @return The token to fetch the next page or {@literal null} if this is the last one
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
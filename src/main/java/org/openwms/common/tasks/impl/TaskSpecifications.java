@@ -0,0 +1,75 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import jakarta.persistence.criteria.Predicate;
+import org.openwms.common.tasks.api.TaskFilterVO;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * A TaskSpecifications translates search criteria into JPA {@link Specification}s on {@link TaskEO}s.
+ *
+ * @author Heiko Scherrer
+ */
+final class TaskSpecifications {
+
+    private TaskSpecifications() {}
+
+    /**
+     * Build a {@link Specification} that matches all given criteria of the {@code filter}.
+     *
+     * @param filter The criteria, {@literal null} matches all Tasks
+     * @return The Specification
+     */
+    static Specification<TaskEO> matching(TaskFilterVO filter) {
+        return (root, query, cb) -> {
+            if (filter == null) {
+                return cb.and();
+            }
+            var predicates = new ArrayList<Predicate>();
+            if (filter.getState() != null) {
+                predicates.add(cb.equal(root.get("state"), filter.getState()));
+            }
+            if (hasText(filter.getType())) {
+                predicates.add(cb.equal(root.get("type"), filter.getType()));
+            }
+            if (hasText(filter.getAssignedTo())) {
+                predicates.add(cb.equal(root.get("assignedTo"), filter.getAssignedTo()));
+            }
+            if (hasText(filter.getTaskGroup())) {
+                predicates.add(cb.equal(root.join("taskGroup").get("pKey"), filter.getTaskGroup()));
+            }
+            if (filter.getStartedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<ZonedDateTime>get("startedAt"), filter.getStartedFrom()));
+            }
+            if (filter.getStartedTo() != null) {
+                predicates.add(cb.lessThan(root.<ZonedDateTime>get("startedAt"), filter.getStartedTo()));
+            }
+            if (filter.getFinishedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<ZonedDateTime>get("finishedAt"), filter.getFinishedFrom()));
+            }
+            if (filter.getFinishedTo() != null) {
+                predicates.add(cb.lessThan(root.<ZonedDateTime>get("finishedAt"), filter.getFinishedTo()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openwms.common.tasks.api.TaskState;
+import org.openwms.common.tasks.events.TaskBatchEvent;
+import org.openwms.common.tasks.events.TaskEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A TaskStateCounters keeps the number of open Tasks per state and type in memory. The counters are built from one aggregate
+ * query at startup and afterwards maintained from the committed {@link TaskEvent}s and {@link TaskBatchEvent}s. Each counter
+ * is published as gauge {@value #METRIC_NAME} with the tags {@code state} and {@code type}.
+ * <p>
+ * The events only tell about the changes of this instance. Changes of other instances are picked up when the counters are
+ * synchronized with the database again, every {@code owms.tasks.counters.resync-interval}.
+ *
+ * @author Heiko Scherrer
+ */
+@Component
+public class TaskStateCounters {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskStateCounters.class);
+    static final String METRIC_NAME = "owms.tasks.open";
+    private static final Set<TaskState> OPEN_STATES = EnumSet.of(TaskState.CREATED, TaskState.ACTIVE, TaskState.PAUSED);
+    private final Map<TaskState, ConcurrentMap<String, LongAdder>> counters = new EnumMap<>(TaskState.class);
+    private final MeterRegistry meterRegistry;
+    private final TaskRepository repository;
+
+    TaskStateCounters(MeterRegistry meterRegistry, TaskRepository repository) {
+        this.meterRegistry = meterRegistry;
+        this.repository = repository;
+        OPEN_STATES.forEach(state -> counters.put(state, new ConcurrentHashMap<>()));
+    }
+
+    /**
+     * Set all counters to the number of Tasks that currently exist in the database. The counters are corrected by the
+     * difference, a change that is counted while the query runs is corrected with the next run at the latest.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${owms.tasks.counters.resync-interval:PT1M}", fixedDelayString = "${owms.tasks.counters.resync-interval:PT1M}")
+    public void rebuild() {
+        var rows = repository.countByStateAndType(OPEN_STATES);
+        var actual = new HashMap<TaskState, Map<String, Long>>();
+        for (var row : rows) {
+            actual.computeIfAbsent((TaskState) row[0], s -> new HashMap<>())
+                    .put(Objects.requireNonNullElse((String) row[1], ""), ((Number) row[2]).longValue());
+            counter((TaskState) row[0], (String) row[1]);
+        }
+        counters.forEach((state, byType) -> byType.forEach((type, adder) ->
+                adder.add(actual.getOrDefault(state, Map.of()).getOrDefault(type, 0L) - adder.sum())));
+        LOGGER.debug("Synchronized Task counters with [{}] combinations of state and type", rows.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEvent(TaskEvent event) {
+        count(event.getSource(), event.getPreviousState());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEvent(TaskBatchEvent event) {
+        event.getSource().forEach(task -> count(task, event.getPreviousState(task.getPersistentKey())));
+    }
+
+    private void count(TaskEO task, TaskState previousState) {
+        if (previousState != null && OPEN_STATES.contains(previousState)) {
+            counter(previousState, task.getType()).decrement();
+        }
+        if (OPEN_STATES.contains(task.getState())) {
+            counter(task.getState(), task.getType()).increment();
+        }
+    }
+
+    private LongAdder counter(TaskState state, String type) {
+        return counters.get(state).computeIfAbsent(Objects.requireNonNullElse(type, ""), t -> {
+            var adder = new LongAdder();
+            Gauge.builder(METRIC_NAME, adder, LongAdder::sum)
+                    .description("The number of open Tasks")
+                    .tag("state", state.name())
+                    .tag("type", t)
+                    .register(meterRegistry);
+            return adder;
+        });
+    }
+
+    /**
+     * Take a snapshot of all counters.
+     *
+     * @return The number of Tasks per type, grouped by state
+     */
+    public Map<TaskState, Map<String, Long>> snapshot() {
+        var result = new EnumMap<TaskState, Map<String, Long>>(TaskState.class);
+        counters.forEach((state, byType) -> {
+            var counts = new TreeMap<String, Long>();
+            byType.forEach((type, adder) -> counts.put(type, adder.sum()));
+            result.put(state, counts);
+        });
+        return result;
+    }
+}
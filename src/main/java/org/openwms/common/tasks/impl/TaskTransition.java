@@ -0,0 +1,127 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import org.openwms.common.tasks.api.TaskState;
+import org.openwms.common.tasks.events.TaskEvent;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.openwms.common.tasks.TaskMessageCodes.TASK_ALREADY_FINISHED;
+import static org.openwms.common.tasks.TaskMessageCodes.TASK_ALREADY_PAUSED;
+import static org.openwms.common.tasks.TaskMessageCodes.TASK_ALREADY_STARTED;
+import static org.openwms.common.tasks.TaskMessageCodes.TASK_IS_NOT_PAUSED;
+import static org.openwms.common.tasks.TaskMessageCodes.TASK_IS_PAUSED;
+import static org.openwms.common.tasks.TaskMessageCodes.TASK_NOT_ACTIVE;
+
+/**
+ * A TaskTransition defines a lifecycle change of a Task, the states it is allowed from and why it is rejected otherwise.
+ *
+ * @author Heiko Scherrer
+ */
+enum TaskTransition {
+
+    START(TaskState.ACTIVE, TaskEvent.Type.STARTED, EnumSet.of(TaskState.CREATED)) {
+        @Override
+        String rejectionCode(TaskState current) {
+            return switch (current) {
+                case FINISHED -> TASK_ALREADY_FINISHED;
+                case ACTIVE -> TASK_ALREADY_STARTED;
+                case PAUSED -> TASK_IS_PAUSED;
+                default -> null;
+            };
+        }
+    },
+    PAUSE(TaskState.PAUSED, TaskEvent.Type.PAUSED, EnumSet.of(TaskState.ACTIVE)) {
+        @Override
+        String rejectionCode(TaskState current) {
+            return switch (current) {
+                case FINISHED -> TASK_ALREADY_FINISHED;
+                case CREATED -> TASK_NOT_ACTIVE;
+                case PAUSED -> TASK_ALREADY_PAUSED;
+                default -> null;
+            };
+        }
+    },
+    RESUME(TaskState.ACTIVE, TaskEvent.Type.RESUMED, EnumSet.of(TaskState.PAUSED)) {
+        @Override
+        String rejectionCode(TaskState current) {
+            return switch (current) {
+                case FINISHED -> TASK_ALREADY_FINISHED;
+                case CREATED -> TASK_NOT_ACTIVE;
+                case ACTIVE -> TASK_IS_NOT_PAUSED;
+                default -> null;
+            };
+        }
+    },
+    /** Finishing is idempotent, an already finished Task is not rejected. */
+    FINISH(TaskState.FINISHED, TaskEvent.Type.FINISHED, EnumSet.of(TaskState.CREATED, TaskState.ACTIVE, TaskState.PAUSED)) {
+        @Override
+        String rejectionCode(TaskState current) {
+            return null;
+        }
+    };
+
+    private final TaskState targetState;
+    private final TaskEvent.Type eventType;
+    private final Set<TaskState> sourceStates;
+
+    TaskTransition(TaskState targetState, TaskEvent.Type eventType, Set<TaskState> sourceStates) {
+        this.targetState = targetState;
+        this.eventType = eventType;
+        this.sourceStates = sourceStates;
+    }
+
+    /**
+     * Get the message code that explains why the transition is not allowed for a Task in the {@code current} state.
+     *
+     * @param current The current state of the Task
+     * @return The message code or {@literal null} if the transition is not rejected
+     */
+    abstract String rejectionCode(TaskState current);
+
+    /**
+     * Check whether the transition changes a Task in the {@code current} state.
+     *
+     * @param current The current state of the Task
+     * @return {@literal true} if the Task is in one of the source states
+     */
+    boolean isApplicable(TaskState current) {
+        return sourceStates.contains(current);
+    }
+
+    /**
+     * Get the state a Task usually has when the transition is applied, a single transition is first tried from this state.
+     *
+     * @return One of the source states
+     */
+    TaskState getUsualSourceState() {
+        return sourceStates.contains(TaskState.ACTIVE) ? TaskState.ACTIVE : sourceStates.iterator().next();
+    }
+
+    TaskState getTargetState() {
+        return targetState;
+    }
+
+    TaskEvent.Type getEventType() {
+        return eventType;
+    }
+
+    Set<TaskState> getSourceStates() {
+        return sourceStates;
+    }
+}
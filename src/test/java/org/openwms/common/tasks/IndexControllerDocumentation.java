@@ -57,6 +57,7 @@ class IndexControllerDocumentation {
                 )
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$._links.tasks-index").exists())
+                .andExpect(jsonPath("$._links.task-groups-index").exists())
                 .andDo(document("get-index", preprocessResponse(prettyPrint())))
         ;
     }
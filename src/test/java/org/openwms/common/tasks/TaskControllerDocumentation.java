@@ -16,10 +16,19 @@
 package org.openwms.common.tasks;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.openwms.common.tasks.api.TaskBatchTransitionVO;
+import org.openwms.common.tasks.api.TaskClaimVO;
+import org.openwms.common.tasks.api.TaskFilterVO;
+import org.openwms.common.tasks.api.TaskState;
 import org.openwms.common.tasks.api.TaskVO;
+import org.openwms.common.tasks.impl.TaskService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.restdocs.RestDocumentationContextProvider;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.SqlGroup;
@@ -27,7 +36,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.openwms.common.tasks.TaskController.HEADER_CONTINUATION_TOKEN;
 import static org.openwms.common.tasks.api.TaskVO.MEDIA_TYPE;
 import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
 import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.documentationConfiguration;
@@ -36,10 +52,15 @@ import static org.springframework.restdocs.operation.preprocess.Preprocessors.pr
 import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
 import static org.springframework.restdocs.payload.PayloadDocumentation.requestFields;
 import static org.springframework.restdocs.payload.PayloadDocumentation.responseFields;
+import static org.springframework.restdocs.payload.PayloadDocumentation.subsectionWithPath;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -54,12 +75,22 @@ class TaskControllerDocumentation {
     private WebApplicationContext context;
     @Autowired
     private ObjectMapper om;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private IdempotencyFilter idempotencyFilter;
+    @Autowired
+    private IdempotentResponseRepository idempotentResponseRepository;
+    @Autowired
+    private TaskService taskService;
     private MockMvc mockMvc;
 
     @BeforeEach
     void setUp(RestDocumentationContextProvider restDocumentation) {
         mockMvc = MockMvcBuilders.webAppContextSetup(context)
                 .apply(documentationConfiguration(restDocumentation)).build();
+        // The test data is reset by SQL, so cached Tasks are not evicted
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
     }
 
     @Test
@@ -88,6 +119,235 @@ class TaskControllerDocumentation {
         ;
     }
 
+    @Test
+    @SqlGroup({
+            @Sql(scripts = "classpath:delete-data.sql"),
+            @Sql(scripts = "classpath:test.sql")
+    })
+    void shall_findByPKey_not_modified() throws Exception {
+        var etag = mockMvc
+                .perform(
+                        get("/tasks/1001")
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1001-0\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc
+                .perform(
+                        get("/tasks/1001")
+                                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                )
+                .andExpect(status().isNotModified())
+                .andDo(document("tasks-findOne-304", preprocessResponse(prettyPrint())))
+        ;
+        mockMvc.perform(post("/tasks/1001/start")).andExpect(status().isOk());
+        mockMvc
+                .perform(
+                        get("/tasks/1001")
+                                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1001-1\""))
+        ;
+    }
+
+    @Test
+    @SqlGroup({
+            @Sql(scripts = "classpath:delete-data.sql"),
+            @Sql(scripts = "classpath:test.sql")
+    })
+    void shall_findAll_not_modified() throws Exception {
+        var etag = mockMvc
+                .perform(
+                        get("/tasks")
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc
+                .perform(
+                        get("/tasks")
+                                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                )
+                .andExpect(status().isNotModified())
+        ;
+    }
+
+    @Test
+    @SqlGroup({
+            @Sql(scripts = "classpath:delete-data.sql"),
+            @Sql(scripts = "classpath:test.sql"),
+            @Sql(statements = {
+                    "update tsk_task set c_parent_task = 1000 where c_pk in (1001, 1003)",
+                    "update tsk_task set c_parent_task = 1001 where c_pk = 1002"
+            })
+    })
+    void shall_find_hierarchy() throws Exception {
+        mockMvc
+                .perform(
+                        get("/tasks/1000/subtree")
+                )
+                .andExpect(status().isOk())
+                .andDo(document("tasks-findSubtree",
+                        preprocessResponse(prettyPrint()),
+                        responseFields(
+                                fieldWithPath("[].depth").description("The distance to the requested Task, the requested Task itself has depth 0"),
+                                fieldWithPath("[].parent").optional().description("The persistent key of the parent Task, if the parent is part of the result"),
+                                subsectionWithPath("[].task").description("The Task")
+                        )
+                ))
+                .andExpect(jsonPath("$.length()", is(4)))
+                .andExpect(jsonPath("$[0].task.pKey", is("1000")))
+                .andExpect(jsonPath("$[0].depth", is(0)))
+                .andExpect(jsonPath("$[1].task.pKey", is("1001")))
+                .andExpect(jsonPath("$[1].parent", is("1000")))
+                .andExpect(jsonPath("$[3].task.pKey", is("1002")))
+                .andExpect(jsonPath("$[3].depth", is(2)))
+                .andExpect(jsonPath("$[3].parent", is("1001")))
+        ;
+        mockMvc
+                .perform(
+                        get("/tasks/1000/subtree")
+                                .queryParam("depth", "1")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(3)))
+        ;
+        mockMvc
+                .perform(
+                        get("/tasks/1002/ancestors")
+                )
+                .andExpect(status().isOk())
+                .andDo(document("tasks-findAncestors", preprocessResponse(prettyPrint())))
+                .andExpect(jsonPath("$.length()", is(3)))
+                .andExpect(jsonPath("$[0].task.pKey", is("1002")))
+                .andExpect(jsonPath("$[1].task.pKey", is("1001")))
+                .andExpect(jsonPath("$[2].task.pKey", is("1000")))
+                .andExpect(jsonPath("$[2].depth", is(2)))
+        ;
+        mockMvc
+                .perform(
+                        get("/tasks/9999/subtree")
+                )
+                .andExpect(status().isNotFound())
+        ;
+    }
+
+    @Test
+    @SqlGroup({
+            @Sql(scripts = "classpath:delete-data.sql"),
+            @Sql(scripts = "classpath:test.sql")
+    })
+    void shall_findAll_paged() throws Exception {
+        var firstPage = mockMvc
+                .perform(
+                        get("/tasks")
+                                .queryParam("limit", "2")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].taskId", is("T0000000001")))
+                .andExpect(header().exists(HttpHeaders.LINK))
+                .andExpect(header().exists(HEADER_CONTINUATION_TOKEN))
+                .andDo(document("tasks-findAll-paged", preprocessResponse(prettyPrint())))
+                .andReturn();
+
+        mockMvc
+                .perform(
+                        get("/tasks")
+                                .queryParam("limit", "2")
+                                .queryParam("cursor", firstPage.getResponse().getHeader(HEADER_CONTINUATION_TOKEN))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].taskId", is("T0000000003")))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
+                .andDo(document("tasks-findAll-paged-last", preprocessResponse(prettyPrint())))
+        ;
+    }
+
+    @Test
+    @SqlGroup({
+            @Sql(scripts = "classpath:delete-data.sql"),
+            @Sql(scripts = "classpath:test.sql")
+    })
+    void shall_findAll_filtered() throws Exception {
+        mockMvc
+                .perform(
+                        get("/tasks")
+                                .queryParam("state", "ACTIVE")
+                                .queryParam("type", "MANUAL")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].taskId", is("T0000000003")))
+                .andDo(document("tasks-findAll-filtered", preprocessResponse(prettyPrint())))
+        ;
+    }
+
+    @Test
+    @SqlGroup({
+            @Sql(scripts = "classpath:delete-data.sql"),
+            @Sql(scripts = "classpath:test.sql"),
+            @Sql(statements = {
+                    "update tsk_task set c_started_at = '2024-01-05 08:00:00', c_finished_at = '2024-01-06 10:00:00' where c_pk = 1000",
+                    "update tsk_task set c_started_at = '2024-01-10 08:00:00' where c_pk = 1002",
+                    "update tsk_task set c_started_at = '2024-02-10 08:00:00' where c_pk = 1003"
+            })
+    })
+    void shall_findAll_filtered_by_time() throws Exception {
+        mockMvc
+                .perform(
+                        get("/tasks")
+                                .queryParam("startedFrom", "2024-01-08T00:00:00Z")
+                                .queryParam("startedTo", "2024-02-01T00:00:00Z")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].taskId", is("T0000000003")))
+        ;
+        mockMvc
+                .perform(
+                        get("/tasks")
+                                .queryParam("finishedFrom", "2024-01-01T00:00:00Z")
+                                .queryParam("finishedTo", "2024-01-31T00:00:00Z")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].taskId", is("T0000000001")))
+        ;
+        mockMvc
+                .perform(
+                        get("/tasks")
+                                .queryParam("finishedFrom", "2024-02-01T00:00:00Z")
+                )
+                .andExpect(status().isNoContent())
+        ;
+    }
+
+    @Test
+    @SqlGroup({
+            @Sql(scripts = "classpath:delete-data.sql"),
+            @Sql(scripts = "classpath:test.sql")
+    })
+    void shall_export() throws Exception {
+        var result = mockMvc
+                .perform(
+                        get("/tasks/export")
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc
+                .perform(
+                        asyncDispatch(result)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(matchesPattern("(\\{[^\\n]*\"taskId\":\"T000000000[1-4]\"[^\\n]*}\\n){4}")))
+                .andDo(document("tasks-export"))
+        ;
+    }
+
     @Test
     @SqlGroup({
             @Sql(scripts = "classpath:delete-data.sql"),
@@ -111,6 +371,8 @@ class TaskControllerDocumentation {
                                 fieldWithPath("description").description("The descriptive text of the task"),
                                 fieldWithPath("type").description("The task's type must be supported by the processing engine"),
                                 fieldWithPath("state").description("A lifecycle state the task resides in"),
+                                fieldWithPath("priority").description("Tasks of higher priority are dispatched first"),
+                                fieldWithPath("dueAt").optional().description("When the task must be done at the latest"),
                                 fieldWithPath("startedAt").optional().description("When the task has been started"),
                                 fieldWithPath("finishedAt").optional().description("When the task has been ended"),
                                 fieldWithPath("createDt").description("Timestamp when the task has been created")
@@ -132,6 +394,7 @@ class TaskControllerDocumentation {
         var vo = new TaskVO();
         vo.setType("USERTASK");
         vo.setDescription("Get a coffee");
+        vo.setPriority(5);
         mockMvc
                 .perform(
                         post("/tasks")
@@ -143,7 +406,9 @@ class TaskControllerDocumentation {
                         preprocessResponse(prettyPrint()),
                         requestFields(
                                 fieldWithPath("type").description("The type of task is a mandatory fields at creation"),
-                                fieldWithPath("description").description("(Optional) descriptive text")
+                                fieldWithPath("description").description("(Optional) descriptive text"),
+                                fieldWithPath("priority").description("(Optional) tasks of higher priority are dispatched first, defaults to 0"),
+                                fieldWithPath("dueAt").optional().description("(Optional) when the task must be done at the latest, it is dispatched ahead of time")
                         ),
                         responseFields(
                                 fieldWithPath("_links").description("An array with hyperlinks to corresponding resources"),
@@ -155,15 +420,267 @@ class TaskControllerDocumentation {
                                 fieldWithPath("description").description("The descriptive text of the task"),
                                 fieldWithPath("type").description("The task's type must be supported by the processing engine"),
                                 fieldWithPath("state").description("A lifecycle state the task resides in"),
+                                fieldWithPath("priority").description("Tasks of higher priority are dispatched first"),
+                                fieldWithPath("dueAt").optional().description("When the task must be done at the latest"),
                                 fieldWithPath("createDt").description("Timestamp when the task has been created"),
                                 fieldWithPath("lastModifiedDt").description("Timestamp when the record has been updated the last time")
                         )
                 ))
                 .andExpect(jsonPath("$.pKey").exists())
-                .andExpect(jsonPath("$.taskId", is("T0000000001")))
+                .andExpect(jsonPath("$.taskId", matchesPattern("T\\d{10}")))
                 .andExpect(jsonPath("$.description", is("Get a coffee")))
                 .andExpect(jsonPath("$.type", is("USERTASK")))
                 .andExpect(jsonPath("$.state", is("CREATED")))
+                .andExpect(jsonPath("$.priority", is(5)))
+        ;
+    }
+
+    @Test
+    void shall_count_tasks() throws Exception {
+        var vo = new TaskVO();
+        vo.setType("COUNTED");
+        var created = om.readValue(mockMvc
+                .perform(
+                        post("/tasks")
+                                .contentType(MEDIA_TYPE)
+                                .content(om.writeValueAsString(vo))
+                )
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString(), TaskVO.class);
+        mockMvc
+                .perform(
+                        get("/tasks/counts")
+                )
+                .andExpect(status().isOk())
+                .andDo(document("tasks-counts", preprocessResponse(prettyPrint())))
+                .andExpect(jsonPath("$.CREATED.COUNTED", is(1)))
+        ;
+        mockMvc.perform(post("/tasks/{pKey}/start", created.getpKey())).andExpect(status().isOk());
+        mockMvc
+                .perform(
+                        get("/tasks/counts")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.CREATED.COUNTED", is(0)))
+                .andExpect(jsonPath("$.ACTIVE.COUNTED", is(1)))
+        ;
+        mockMvc.perform(post("/tasks/{pKey}/finish", created.getpKey())).andExpect(status().isOk());
+        mockMvc
+                .perform(
+                        get("/tasks/counts")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ACTIVE.COUNTED", is(0)))
+        ;
+    }
+
+    @Test
+    void shall_stream_changes() throws Exception {
+        var subscription = mockMvc
+                .perform(
+                        get("/tasks/stream")
+                                .queryParam("type", "STREAMED")
+                                .accept(MediaType.TEXT_EVENT_STREAM)
+                )
+                .andExpect(request().asyncStarted())
+                .andDo(document("tasks-stream"))
+                .andReturn();
+        var other = new TaskVO();
+        other.setType("NOT_STREAMED");
+        mockMvc.perform(post("/tasks").contentType(MEDIA_TYPE).content(om.writeValueAsString(other))).andExpect(status().isCreated());
+        var streamed = new TaskVO();
+        streamed.setType("STREAMED");
+        mockMvc.perform(post("/tasks").contentType(MEDIA_TYPE).content(om.writeValueAsString(streamed))).andExpect(status().isCreated());
+
+        var response = subscription.getResponse();
+        var deadline = System.currentTimeMillis() + 5000;
+        while (!response.getContentAsString().contains("event:CREATED") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(response.getContentAsString()).contains("event:CREATED", "STREAMED").doesNotContain("NOT_STREAMED");
+    }
+
+    @Test
+    void shall_replay_idempotent_create() throws Exception {
+        var idempotentMockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(idempotencyFilter).build();
+        var vo = new TaskVO();
+        vo.setType("RETRIED");
+        var first = idempotentMockMvc
+                .perform(
+                        post("/tasks")
+                                .header(IdempotencyFilter.HEADER, "create-4711")
+                                .contentType(MEDIA_TYPE)
+                                .content(om.writeValueAsString(vo))
+                )
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.HEADER_REPLAYED))
+                .andReturn().getResponse();
+        var pKey = om.readTree(first.getContentAsString()).get("pKey").asText();
+
+        idempotentMockMvc
+                .perform(
+                        post("/tasks")
+                                .header(IdempotencyFilter.HEADER, "create-4711")
+                                .contentType(MEDIA_TYPE)
+                                .content(om.writeValueAsString(vo))
+                )
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.HEADER_REPLAYED, "true"))
+                .andExpect(header().string(HttpHeaders.LOCATION, first.getHeader(HttpHeaders.LOCATION)))
+                .andExpect(jsonPath("$.pKey", is(pKey)))
+        ;
+        var filter = new TaskFilterVO();
+        filter.setType("RETRIED");
+        assertThat(taskService.findAll(filter, null, null).getContent()).hasSize(1);
+    }
+
+    @Test
+    @SqlGroup({
+            @Sql(scripts = "classpath:delete-data.sql"),
+            @Sql(scripts = "classpath:test.sql")
+    })
+    void shall_replay_idempotent_transition() throws Exception {
+        var idempotentMockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(idempotencyFilter).build();
+        idempotentMockMvc
+                .perform(
+                        post("/tasks/1001/start")
+                                .header(IdempotencyFilter.HEADER, "start-1001")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state", is("ACTIVE")))
+        ;
+        idempotentMockMvc
+                .perform(
+                        post("/tasks/1001/start")
+                                .header(IdempotencyFilter.HEADER, "start-1001")
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.HEADER_REPLAYED, "true"))
+                .andExpect(jsonPath("$.state", is("ACTIVE")))
+        ;
+        // Without the same key the request is processed again
+        idempotentMockMvc
+                .perform(
+                        post("/tasks/1001/start")
+                )
+                .andExpect(status().is4xxClientError())
+        ;
+    }
+
+    @Test
+    void shall_replay_idempotent_create_from_database() throws Exception {
+        var vo = new TaskVO();
+        vo.setType("RETRIED");
+        var first = MockMvcBuilders.webAppContextSetup(context).addFilters(idempotencyFilter).build()
+                .perform(
+                        post("/tasks")
+                                .header(IdempotencyFilter.HEADER, "create-4712")
+                                .contentType(MEDIA_TYPE)
+                                .content(om.writeValueAsString(vo))
+                )
+                .andExpect(status().isCreated())
+                .andReturn().getResponse();
+        var pKey = om.readTree(first.getContentAsString()).get("pKey").asText();
+
+        // Nothing is cached in another filter, like on another instance or after the cache entry has been evicted
+        var otherFilter = new IdempotencyFilter(idempotentResponseRepository, new SimpleMeterRegistry(), true, Duration.ofHours(1),
+                Duration.ofMinutes(1), 10);
+        MockMvcBuilders.webAppContextSetup(context).addFilters(otherFilter).build()
+                .perform(
+                        post("/tasks")
+                                .header(IdempotencyFilter.HEADER, "create-4712")
+                                .contentType(MEDIA_TYPE)
+                                .content(om.writeValueAsString(vo))
+                )
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.HEADER_REPLAYED, "true"))
+                .andExpect(header().string(HttpHeaders.LOCATION, first.getHeader(HttpHeaders.LOCATION)))
+                .andExpect(jsonPath("$.pKey", is(pKey)))
+        ;
+        var filter = new TaskFilterVO();
+        filter.setType("RETRIED");
+        assertThat(taskService.findAll(filter, null, null).getContent()).hasSize(1);
+    }
+
+    @Test
+    void shall_reject_idempotency_key_of_other_request() throws Exception {
+        var idempotentMockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(idempotencyFilter).build();
+        var vo = new TaskVO();
+        vo.setType("RETRIED");
+        idempotentMockMvc
+                .perform(
+                        post("/tasks")
+                                .header(IdempotencyFilter.HEADER, "create-4713")
+                                .contentType(MEDIA_TYPE)
+                                .content(om.writeValueAsString(vo))
+                )
+                .andExpect(status().isCreated())
+        ;
+        vo.setDescription("Another Task");
+        idempotentMockMvc
+                .perform(
+                        post("/tasks")
+                                .header(IdempotencyFilter.HEADER, "create-4713")
+                                .contentType(MEDIA_TYPE)
+                                .content(om.writeValueAsString(vo))
+                )
+                .andExpect(status().isUnprocessableEntity())
+        ;
+        var filter = new TaskFilterVO();
+        filter.setType("RETRIED");
+        assertThat(taskService.findAll(filter, null, null).getContent()).hasSize(1);
+    }
+
+    @Test
+    @SqlGroup({
+            @Sql(scripts = "classpath:delete-data.sql"),
+            @Sql(scripts = "classpath:test.sql")
+    })
+    void shall_reject_idempotent_request_in_progress() throws Exception {
+        // Claimed by another instance that still processes the request
+        idempotentResponseRepository.save(new IdempotentResponseEO(
+                IdempotencyFilter.requestKey("POST", "/tasks/1001/start", IdempotencyFilter.ANONYMOUS, "start-1001-pending"),
+                IdempotencyFilter.hash(new byte[0]), Instant.now().plusSeconds(60)));
+
+        MockMvcBuilders.webAppContextSetup(context).addFilters(idempotencyFilter).build()
+                .perform(
+                        post("/tasks/1001/start")
+                                .header(IdempotencyFilter.HEADER, "start-1001-pending")
+                )
+                .andExpect(status().isConflict())
+        ;
+        assertThat(taskService.findByPKeyOrThrow("1001").getState()).isEqualTo(TaskState.CREATED);
+    }
+
+    @Test
+    void shall_create_batch() throws Exception {
+        var coffee = new TaskVO();
+        coffee.setType("USERTASK");
+        coffee.setDescription("Get a coffee");
+        var nap = new TaskVO();
+        nap.setType("USERTASK");
+        nap.setDescription("Take a nap");
+        mockMvc
+                .perform(
+                        post("/tasks/batch")
+                                .contentType(MEDIA_TYPE)
+                                .content(om.writeValueAsString(List.of(coffee, nap)))
+                )
+                .andExpect(status().isCreated())
+                .andDo(document("tasks-create-batch",
+                        preprocessResponse(prettyPrint()),
+                        requestFields(
+                                fieldWithPath("[].type").description("The type of each task is a mandatory fields at creation"),
+                                fieldWithPath("[].description").description("(Optional) descriptive text")
+                        )
+                ))
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].pKey").exists())
+                .andExpect(jsonPath("$[0].description", is("Get a coffee")))
+                .andExpect(jsonPath("$[0].state", is("CREATED")))
+                .andExpect(jsonPath("$[1].pKey").exists())
+                .andExpect(jsonPath("$[1].description", is("Take a nap")))
+                .andExpect(jsonPath("$[1].state", is("CREATED")))
         ;
     }
 
@@ -291,6 +808,262 @@ class TaskControllerDocumentation {
         ;
     }
 
+    @Test
+    @SqlGroup({
+            @Sql(scripts = "classpath:delete-data.sql"),
+            @Sql(scripts = "classpath:test.sql")
+    })
+    void shall_finish_twice() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc
+                    .perform(
+                            post("/tasks/1003/finish")
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.taskId", is("T0000000004")))
+                    .andExpect(jsonPath("$.state", is("FINISHED")))
+                    .andExpect(jsonPath("$.finishedAt").exists())
+            ;
+        }
+    }
+
+    @Test
+    @SqlGroup({
+            @Sql(scripts = "classpath:delete-data.sql"),
+            @Sql(scripts = "classpath:test.sql")
+    })
+    void shall_evict_cached_task_on_change() throws Exception {
+        mockMvc.perform(get("/tasks/1001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state", is("CREATED")))
+                .andExpect(jsonPath("$._links.self").exists());
+        mockMvc.perform(post("/tasks/1001/start"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/tasks/1001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state", is("ACTIVE")))
+                .andExpect(jsonPath("$._links.length()", is(1)));
+
+        var vo = new TaskVO();
+        vo.setpKey("1001");
+        vo.setDescription("Take a nap");
+        mockMvc.perform(put("/tasks").contentType(MEDIA_TYPE).content(om.writeValueAsString(vo)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/tasks/1001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description", is("Take a nap")));
+    }
+
+    @Test
+    @SqlGroup({
+            @Sql(scripts = "classpath:delete-data.sql"),
+            @Sql(scripts = "classpath:test.sql")
+    })
+    void shall_start_batch() throws Exception {
+        mockMvc
+                .perform(
+                        post("/tasks/batch/start")
+                                .contentType(MEDIA_TYPE)
+                                .content(om.writeValueAsString(new TaskBatchTransitionVO(List.of("1000", "1002", "9999"))))
+                )
+                .andExpect(status().isOk())
+                .andDo(document("tasks-start-batch",
+                        preprocessResponse(prettyPrint()),
+                        requestFields(
+                                fieldWithPath("pKeys").description("The persistent keys of the Tasks to start")
+                        ),
+                        responseFields(
+                                fieldWithPath("[].pKey").description("The persistent key of the Task"),
+                                fieldWithPath("[].accepted").description("Whether the Task has been changed or is already in the requested state"),
+                                fieldWithPath("[].messageKey").optional().description("The unique identifier of the reason a Task is rejected"),
+                                fieldWithPath("[].message").optional().description("The translated reason a Task is rejected")
+                        )
+                ))
+                .andExpect(jsonPath("$.length()", is(3)))
+                .andExpect(jsonPath("$[0].pKey", is("1000")))
+                .andExpect(jsonPath("$[0].accepted", is(true)))
+                .andExpect(jsonPath("$[1].pKey", is("1002")))
+                .andExpect(jsonPath("$[1].accepted", is(false)))
+                .andExpect(jsonPath("$[1].messageKey", is("owms.common.tasks.alreadyStarted")))
+                .andExpect(jsonPath("$[2].pKey", is("9999")))
+                .andExpect(jsonPath("$[2].accepted", is(false)))
+                .andExpect(jsonPath("$[2].messageKey", is("owms.common.tasks.notFoundByPKey")))
+        ;
+        mockMvc
+                .perform(
+                        get("/tasks/1000")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state", is("ACTIVE")))
+                .andExpect(jsonPath("$.startedAt").exists())
+        ;
+    }
+
+    @Test
+    @SqlGroup({
+            @Sql(scripts = "classpath:delete-data.sql"),
+            @Sql(scripts = "classpath:test.sql")
+    })
+    void shall_finish_batch_filtered() throws Exception {
+        var filter = new TaskFilterVO();
+        filter.setState(TaskState.ACTIVE);
+        mockMvc
+                .perform(
+                        post("/tasks/batch/finish")
+                                .contentType(MEDIA_TYPE)
+                                .content(om.writeValueAsString(new TaskBatchTransitionVO(filter)))
+                )
+                .andExpect(status().isOk())
+                .andDo(document("tasks-finish-batch",
+                        preprocessResponse(prettyPrint()),
+                        requestFields(
+                                fieldWithPath("filter").description("The criteria the Tasks to finish must match"),
+                                fieldWithPath("filter.state").description("In this example all active Tasks are finished")
+                        )
+                ))
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].pKey", is("1002")))
+                .andExpect(jsonPath("$[0].accepted", is(true)))
+        ;
+    }
+
+    @Test
+    @SqlGroup({
+            @Sql(scripts = "classpath:delete-data.sql"),
+            @Sql(scripts = "classpath:test.sql")
+    })
+    void shall_claim_next() throws Exception {
+        var claim = new TaskClaimVO("operator-1");
+        claim.setType("MANUAL");
+        mockMvc
+                .perform(
+                        post("/tasks/claim-next")
+                                .contentType(MEDIA_TYPE)
+                                .content(om.writeValueAsString(claim))
+                )
+                .andExpect(status().isOk())
+                .andDo(document("tasks-claim-next",
+                        preprocessResponse(prettyPrint()),
+                        requestFields(
+                                fieldWithPath("assignee").description("Who the claimed Task is assigned to"),
+                                fieldWithPath("type").optional().description("Only claim a Task of this type"),
+                                fieldWithPath("taskGroup").optional().description("Only claim a Task of the TaskGroup with this persistent key")
+                        )
+                ))
+                .andExpect(jsonPath("$.pKey", is("1000")))
+                .andExpect(jsonPath("$.state", is("CREATED")))
+                .andExpect(jsonPath("$.assignedTo", is("operator-1")))
+                .andExpect(jsonPath("$.assignedAt").exists())
+        ;
+        mockMvc
+                .perform(
+                        post("/tasks/claim-next")
+                                .contentType(MEDIA_TYPE)
+                                .content(om.writeValueAsString(new TaskClaimVO("operator-2")))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pKey", is("1001")))
+                .andExpect(jsonPath("$.assignedTo", is("operator-2")))
+        ;
+        mockMvc
+                .perform(
+                        post("/tasks/claim-next")
+                                .contentType(MEDIA_TYPE)
+                                .content(om.writeValueAsString(new TaskClaimVO("operator-3")))
+                )
+                .andExpect(status().isNoContent())
+                .andDo(document("tasks-claim-next-none", preprocessResponse(prettyPrint())))
+        ;
+    }
+
+    @Test
+    void shall_wait_for_next_task() throws Exception {
+        var claim = new TaskClaimVO("operator-1");
+        claim.setType("WAITED");
+        var parked = mockMvc
+                .perform(
+                        post("/tasks/claim-next")
+                                .queryParam("wait", "5")
+                                .contentType(MEDIA_TYPE)
+                                .content(om.writeValueAsString(claim))
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        var task = new TaskVO();
+        task.setType("WAITED");
+        mockMvc.perform(post("/tasks").contentType(MEDIA_TYPE).content(om.writeValueAsString(task))).andExpect(status().isCreated());
+
+        mockMvc
+                .perform(asyncDispatch(parked))
+                .andExpect(status().isOk())
+                .andDo(document("tasks-claim-next-wait", preprocessResponse(prettyPrint())))
+                .andExpect(jsonPath("$.type", is("WAITED")))
+                .andExpect(jsonPath("$.assignedTo", is("operator-1")))
+        ;
+    }
+
+    @Test
+    void shall_not_wait_without_wait_time() throws Exception {
+        var claim = new TaskClaimVO("operator-1");
+        claim.setType("NEVER_CREATED");
+        var parked = mockMvc
+                .perform(
+                        post("/tasks/claim-next")
+                                .queryParam("wait", "0")
+                                .contentType(MEDIA_TYPE)
+                                .content(om.writeValueAsString(claim))
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc
+                .perform(asyncDispatch(parked))
+                .andExpect(status().isNoContent())
+        ;
+    }
+
+    @Test
+    @SqlGroup({
+            @Sql(scripts = "classpath:delete-data.sql"),
+            @Sql(scripts = "classpath:test.sql")
+    })
+    void shall_release() throws Exception {
+        mockMvc
+                .perform(
+                        post("/tasks/claim-next")
+                                .contentType(MEDIA_TYPE)
+                                .content(om.writeValueAsString(new TaskClaimVO("operator-1")))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pKey", is("1000")))
+        ;
+        mockMvc
+                .perform(
+                        post("/tasks/1000/release")
+                )
+                .andExpect(status().isOk())
+                .andDo(document("tasks-release", preprocessResponse(prettyPrint())))
+                .andExpect(jsonPath("$.pKey", is("1000")))
+                .andExpect(jsonPath("$.assignedTo").doesNotExist())
+        ;
+        mockMvc
+                .perform(
+                        post("/tasks/1000/release")
+                )
+                .andExpect(status().is4xxClientError())
+                .andDo(document("tasks-release-not-assigned", preprocessResponse(prettyPrint())))
+        ;
+        mockMvc
+                .perform(
+                        post("/tasks/claim-next")
+                                .contentType(MEDIA_TYPE)
+                                .content(om.writeValueAsString(new TaskClaimVO("operator-2")))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pKey", is("1000")))
+                .andExpect(jsonPath("$.assignedTo", is("operator-2")))
+        ;
+    }
+
     @Test
     void shall_return_index() throws Exception {
         mockMvc
@@ -298,7 +1071,7 @@ class TaskControllerDocumentation {
                         get("/tasks/index")
                 )
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$._links.length()", is(8)))
+                .andExpect(jsonPath("$._links.length()", is(21)))
                 .andDo(document("tasks-index", preprocessResponse(prettyPrint())))
         ;
     }
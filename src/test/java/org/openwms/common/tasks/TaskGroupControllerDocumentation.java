@@ -0,0 +1,238 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openwms.common.tasks.events.ReferenceDataEvictionEvent;
+import org.openwms.common.tasks.impl.TaskGroupEO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.restdocs.RestDocumentationContextProvider;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.jdbc.SqlMergeMode;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.containsString;
+import static org.openwms.common.tasks.TaskController.HEADER_CONTINUATION_TOKEN;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.documentationConfiguration;
+import static org.springframework.restdocs.operation.preprocess.Preprocessors.preprocessResponse;
+import static org.springframework.restdocs.operation.preprocess.Preprocessors.prettyPrint;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+import static org.springframework.restdocs.payload.PayloadDocumentation.responseFields;
+import static org.springframework.restdocs.payload.PayloadDocumentation.subsectionWithPath;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A TaskGroupControllerDocumentation.
+ *
+ * @author Heiko Scherrer
+ */
+@TasksApplicationTest
+@SqlGroup({
+        @Sql(scripts = "classpath:delete-data.sql"),
+        @Sql(scripts = "classpath:test.sql"),
+        @Sql(statements = {
+                "insert into tsk_task_group (c_pk, c_created, c_ol, c_pid, c_name, c_description) values (2000, now(), 0, '2000', 'Picking', 'Picks of order 4711')",
+                "insert into tsk_task_group (c_pk, c_created, c_ol, c_pid, c_name) values (2001, now(), 0, '2001', 'Inventory')",
+                "update tsk_task set c_task_group = 2000",
+                "update tsk_task set c_state = 'FINISHED' where c_pk = 1000"
+        })
+})
+class TaskGroupControllerDocumentation {
+
+    @Autowired
+    private WebApplicationContext context;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp(RestDocumentationContextProvider restDocumentation) {
+        // The test data is reset by SQL, so cached TaskGroups are not evicted
+        entityManagerFactory.getCache().evictAll();
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .apply(documentationConfiguration(restDocumentation)).build();
+    }
+
+    @Test
+    void shall_return_index() throws Exception {
+        mockMvc
+                .perform(
+                        get("/task-groups/index")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._links.length()", is(3)))
+                .andDo(document("task-groups-index", preprocessResponse(prettyPrint())))
+        ;
+    }
+
+    @Test
+    void shall_find_summary() throws Exception {
+        mockMvc
+                .perform(
+                        get("/task-groups/2000")
+                )
+                .andExpect(status().isOk())
+                .andDo(document("task-groups-findOne",
+                        preprocessResponse(prettyPrint()),
+                        responseFields(
+                                fieldWithPath("pKey").description("The persistent key of the TaskGroup"),
+                                fieldWithPath("name").description("The name of the TaskGroup"),
+                                fieldWithPath("description").optional().description("A description of the TaskGroup"),
+                                fieldWithPath("total").description("The number of Tasks in the TaskGroup"),
+                                subsectionWithPath("countsByState").description("The number of Tasks per state"),
+                                fieldWithPath("progress").description("The percentage of finished Tasks"),
+                                fieldWithPath("oldestOpenTask").optional().description("The persistent key of the earliest created Task that is not finished"),
+                                fieldWithPath("oldestOpenTaskId").optional().description("The identifier of the earliest created Task that is not finished"),
+                                subsectionWithPath("_links").description("Links to the TaskGroup and its Tasks")
+                        )
+                ))
+                .andExpect(jsonPath("$.total", is(4)))
+                .andExpect(jsonPath("$.countsByState.CREATED", is(1)))
+                .andExpect(jsonPath("$.countsByState.FINISHED", is(1)))
+                .andExpect(jsonPath("$.progress", is(25)))
+                .andExpect(jsonPath("$.oldestOpenTask", is("1001")))
+                .andExpect(jsonPath("$.oldestOpenTaskId", is("T0000000002")))
+        ;
+        mockMvc
+                .perform(
+                        get("/task-groups/2001")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(0)))
+                .andExpect(jsonPath("$.countsByState.CREATED", is(0)))
+                .andExpect(jsonPath("$.progress", is(0)))
+                .andExpect(jsonPath("$.oldestOpenTask").doesNotExist())
+        ;
+    }
+
+    @Test
+    @SqlMergeMode(SqlMergeMode.MergeMode.MERGE)
+    @Sql(statements = "update tsk_task set c_created = dateadd('HOUR', -1, now()) where c_pk = 1003")
+    void shall_find_summary_with_the_earliest_created_open_task() throws Exception {
+        mockMvc
+                .perform(
+                        get("/task-groups/2000")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.oldestOpenTask", is("1003")))
+                .andExpect(jsonPath("$.oldestOpenTaskId", is("T0000000004")))
+        ;
+    }
+
+    @Test
+    void shall_find_summary_404() throws Exception {
+        mockMvc
+                .perform(
+                        get("/task-groups/9999")
+                )
+                .andExpect(status().isNotFound())
+                .andDo(document("task-groups-findOne-404", preprocessResponse(prettyPrint())))
+        ;
+    }
+
+    @Test
+    void shall_findAll() throws Exception {
+        mockMvc
+                .perform(
+                        get("/task-groups")
+                )
+                .andExpect(status().isOk())
+                .andDo(document("task-groups-findAll", preprocessResponse(prettyPrint())))
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].pKey", is("2000")))
+                .andExpect(jsonPath("$[1].pKey", is("2001")))
+        ;
+        mockMvc
+                .perform(
+                        get("/task-groups")
+                                .queryParam("size", "1")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("page=1")))
+        ;
+    }
+
+    @Test
+    void shall_find_tasks_paged() throws Exception {
+        var firstPage = mockMvc
+                .perform(
+                        get("/task-groups/2000/tasks")
+                                .queryParam("limit", "3")
+                )
+                .andExpect(status().isOk())
+                .andDo(document("task-groups-findTasks", preprocessResponse(prettyPrint())))
+                .andExpect(jsonPath("$.length()", is(3)))
+                .andExpect(jsonPath("$[0].pKey", is("1000")))
+                .andExpect(header().exists(HttpHeaders.LINK))
+                .andReturn();
+        mockMvc
+                .perform(
+                        get("/task-groups/2000/tasks")
+                                .queryParam("limit", "3")
+                                .queryParam("cursor", firstPage.getResponse().getHeader(HEADER_CONTINUATION_TOKEN))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].pKey", is("1003")))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
+        ;
+        mockMvc
+                .perform(
+                        get("/task-groups/2001/tasks")
+                )
+                .andExpect(status().isNoContent())
+        ;
+        mockMvc
+                .perform(
+                        get("/task-groups/9999/tasks")
+                )
+                .andExpect(status().isNotFound())
+        ;
+    }
+
+    @Test
+    void shall_cache_and_evict_groups() throws Exception {
+        mockMvc
+                .perform(
+                        get("/task-groups/2000")
+                )
+                .andExpect(status().isOk())
+        ;
+        assertThat(entityManagerFactory.getCache().contains(TaskGroupEO.class, 2000L)).isTrue();
+
+        eventPublisher.publishEvent(new ReferenceDataEvictionEvent(this, "other", () -> "**", TaskGroupEO.class.getName(), List.of(2000L)));
+
+        assertThat(entityManagerFactory.getCache().contains(TaskGroupEO.class, 2000L)).isFalse();
+    }
+}
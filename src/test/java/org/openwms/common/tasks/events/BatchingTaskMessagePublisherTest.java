@@ -0,0 +1,168 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.events;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A BatchingTaskMessagePublisherTest.
+ *
+ * @author Heiko Scherrer
+ */
+class BatchingTaskMessagePublisherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+    private final RabbitOperations operations = mock(RabbitOperations.class);
+
+    @SuppressWarnings("unchecked")
+    private BatchingTaskMessagePublisher testee(int batchSize, Duration window) {
+        doAnswer(inv -> sent.add(((TaskMO) inv.getArgument(2)).getpKey()))
+                .when(operations).convertAndSend(anyString(), anyString(), any(Object.class));
+        var rabbitTemplate = mock(RabbitTemplate.class);
+        when(rabbitTemplate.invoke(any(RabbitOperations.OperationsCallback.class)))
+                .thenAnswer(inv -> ((RabbitOperations.OperationsCallback<?>) inv.getArgument(0)).doInRabbit(operations));
+        return new BatchingTaskMessagePublisher(rabbitTemplate, meterRegistry, "tasks", batchSize, window, Duration.ofSeconds(1), 1000);
+    }
+
+    private static TaskMO task(String pKey) {
+        var mo = new TaskMO();
+        mo.setpKey(pKey);
+        return mo;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private double batches() {
+        return meterRegistry.get("owms.tasks.publishing.batch.size").summary().count();
+    }
+
+    @Test
+    void shall_collect_within_window() throws Exception {
+        var testee = testee(100, Duration.ofMillis(500));
+        // Queued before the sender starts, so all of them are within the window of the first one
+        for (int i = 0; i < 5; i++) {
+            testee.publish("task.event.created", task("T" + i));
+        }
+        testee.start();
+        await(() -> sent.size() == 5);
+        testee.stop();
+
+        assertThat(sent).containsExactly("T0", "T1", "T2", "T3", "T4");
+        assertThat(batches()).isEqualTo(1);
+        verify(operations, times(1)).waitForConfirmsOrDie(anyLong());
+    }
+
+    @Test
+    void shall_split_at_batch_size() throws Exception {
+        var testee = testee(2, Duration.ofMillis(500));
+        for (int i = 0; i < 5; i++) {
+            testee.publish("task.event.created", task("T" + i));
+        }
+        testee.start();
+        await(() -> sent.size() == 5);
+        testee.stop();
+
+        assertThat(sent).containsExactly("T0", "T1", "T2", "T3", "T4");
+        assertThat(batches()).isEqualTo(3);
+        assertThat(meterRegistry.get("owms.tasks.publishing.published").counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    void shall_send_again_if_not_confirmed() throws Exception {
+        var testee = testee(100, Duration.ofMillis(10));
+        doThrow(new AmqpTimeoutException("No confirm")).doNothing().when(operations).waitForConfirmsOrDie(anyLong());
+        testee.publish("task.event.created", task("T1"));
+        testee.start();
+        await(() -> meterRegistry.get("owms.tasks.publishing.published").counter().count() == 1);
+        testee.stop();
+
+        // Sent twice, at least once delivery
+        assertThat(sent).containsExactly("T1", "T1");
+        assertThat(meterRegistry.get("owms.tasks.publishing.failures").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("owms.tasks.publishing.published").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shall_send_queued_messages_on_stop() {
+        var testee = testee(100, Duration.ofSeconds(1));
+        testee.start();
+        for (int i = 0; i < 3; i++) {
+            testee.publish("task.event.created", task("T" + i));
+        }
+        testee.stop();
+
+        assertThat(sent).containsExactly("T0", "T1", "T2");
+        assertThat(testee.isRunning()).isFalse();
+    }
+
+    @Test
+    void shall_not_overtake_a_batch_that_is_retried_on_stop() throws Exception {
+        var testee = testee(100, Duration.ofMillis(10));
+        var noConfirm = new AmqpTimeoutException("No confirm");
+        doThrow(noConfirm).doThrow(noConfirm).doThrow(noConfirm).doNothing().when(operations).waitForConfirmsOrDie(anyLong());
+        testee.publish("task.event.created", task("T1"));
+        testee.start();
+        await(() -> meterRegistry.get("owms.tasks.publishing.failures").counter().count() == 1);
+        testee.publish("task.event.created", task("T2"));
+
+        // Still in backoff after the grace period, so the sender is interrupted and makes its last attempt
+        testee.stop();
+        testee.publish("task.event.created", task("T3"));
+
+        assertThat(sent).containsExactly("T1", "T1", "T1", "T1", "T2", "T3");
+        assertThat(meterRegistry.get("owms.tasks.publishing.failures").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void shall_send_synchronously_after_stop() {
+        var testee = testee(100, Duration.ofMillis(10));
+        testee.start();
+        testee.stop();
+
+        testee.publish("task.event.created", task("T1"));
+
+        assertThat(sent).containsExactly("T1");
+        verify(operations, times(1)).waitForConfirmsOrDie(anyLong());
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.events;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A PartitionedTaskMessagePublisherTest.
+ *
+ * @author Heiko Scherrer
+ */
+class PartitionedTaskMessagePublisherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<TaskMO> sent = Collections.synchronizedList(new ArrayList<>());
+
+    @SuppressWarnings("unchecked")
+    private RabbitTemplate rabbitTemplate() {
+        var operations = mock(RabbitOperations.class);
+        doAnswer(inv -> sent.add(inv.getArgument(2))).when(operations).convertAndSend(anyString(), anyString(), any(Object.class));
+        var rabbitTemplate = mock(RabbitTemplate.class);
+        when(rabbitTemplate.invoke(any(RabbitOperations.OperationsCallback.class)))
+                .thenAnswer(inv -> ((RabbitOperations.OperationsCallback<?>) inv.getArgument(0)).doInRabbit(operations));
+        return rabbitTemplate;
+    }
+
+    private PartitionedTaskMessagePublisher testee(int capacity, PartitionedTaskMessagePublisher.Overflow overflow) {
+        return new PartitionedTaskMessagePublisher(rabbitTemplate(), meterRegistry, "tasks", 4, 10, Duration.ofSeconds(1),
+                capacity, overflow, Duration.ofMillis(10));
+    }
+
+    private static TaskMO task(String pKey, int version) {
+        var mo = new TaskMO();
+        mo.setpKey(pKey);
+        mo.setDescription(String.valueOf(version));
+        return mo;
+    }
+
+    @Test
+    void shall_keep_order_per_task() throws Exception {
+        var testee = testee(1000, PartitionedTaskMessagePublisher.Overflow.BLOCK);
+        testee.start();
+        for (int version = 0; version < 50; version++) {
+            for (int task = 0; task < 10; task++) {
+                testee.publish("task.event.started", task("T" + task, version));
+            }
+        }
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sent.size() < 500 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        testee.stop();
+
+        assertThat(sent).hasSize(500);
+        for (int task = 0; task < 10; task++) {
+            var pKey = "T" + task;
+            var versions = sent.stream().filter(mo -> pKey.equals(mo.getpKey())).map(mo -> Integer.valueOf(mo.getDescription())).toList();
+            assertThat(versions).isSorted().hasSize(50);
+        }
+        assertThat(meterRegistry.get("owms.tasks.publishing.latency").timer().count()).isEqualTo(500);
+    }
+
+    @Test
+    void shall_drop_when_full() {
+        var testee = testee(4, PartitionedTaskMessagePublisher.Overflow.DROP);
+        // Not started, all messages of one Task go to the same partition with a capacity of one
+        testee.publish("task.event.created", task("T1", 0));
+        testee.publish("task.event.started", task("T1", 1));
+
+        assertThat(meterRegistry.get("owms.tasks.publishing.dropped").counter().count()).isEqualTo(1);
+        assertThat(sent).isEmpty();
+    }
+}
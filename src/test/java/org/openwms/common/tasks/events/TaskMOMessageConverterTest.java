@@ -0,0 +1,95 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.events;
+
+import org.junit.jupiter.api.Test;
+import org.openwms.common.tasks.api.TaskState;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.SerializerMessageConverter;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A TaskMOMessageConverterTest.
+ *
+ * @author Heiko Scherrer
+ */
+class TaskMOMessageConverterTest {
+
+    private final TaskMOMessageConverter testee = new TaskMOMessageConverter();
+
+    static TaskMO task() {
+        var mo = new TaskMO();
+        mo.setpKey("c0ffee00-1234-4b0b-9a1e-7f3a2b1c0d9e");
+        mo.setTaskId("T0000004711");
+        mo.setDescription("Pick the pallet from the inbound buffer");
+        mo.setType("MANUAL");
+        mo.setState(TaskState.ACTIVE);
+        mo.setStartedAt(ZonedDateTime.of(2025, 3, 1, 8, 15, 30, 0, ZoneOffset.ofHours(1)));
+        return mo;
+    }
+
+    @Test
+    void shall_convert_all_fields() {
+        var mo = task();
+        mo.setFinishedAt(ZonedDateTime.of(1969, 12, 31, 23, 59, 59, 123_000_000, ZoneOffset.ofHoursMinutes(-9, -30)));
+
+        var message = testee.toMessage(mo, new MessageProperties());
+        var result = (TaskMO) testee.fromMessage(message);
+
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo(TaskMOMessageConverter.CONTENT_TYPE);
+        assertThat(result).usingRecursiveComparison().isEqualTo(mo);
+    }
+
+    @Test
+    void shall_convert_missing_fields() {
+        var mo = new TaskMO();
+        mo.setTaskId("T0000000001");
+
+        var result = TaskMOMessageConverter.decode(TaskMOMessageConverter.encode(mo));
+
+        assertThat(result).usingRecursiveComparison().isEqualTo(mo);
+        assertThat(result.getpKey()).isNull();
+        assertThat(result.getState()).isNull();
+    }
+
+    @Test
+    void shall_reject_invalid_input() {
+        var encoded = TaskMOMessageConverter.encode(task());
+        var truncated = new byte[encoded.length / 2];
+        System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+
+        assertThatThrownBy(() -> TaskMOMessageConverter.decode(truncated)).isInstanceOf(MessageConversionException.class);
+        assertThatThrownBy(() -> TaskMOMessageConverter.decode(new byte[]{9, 0})).isInstanceOf(MessageConversionException.class);
+        assertThatThrownBy(() -> testee.toMessage("no task", new MessageProperties())).isInstanceOf(MessageConversionException.class);
+    }
+
+    @Test
+    void shall_be_smaller_than_the_other_formats() {
+        var mo = task();
+        var binary = testee.toMessage(mo, new MessageProperties()).getBody().length;
+        var json = new Jackson2JsonMessageConverter().toMessage(mo, new MessageProperties()).getBody().length;
+        var barray = new SerializerMessageConverter().toMessage(mo, new MessageProperties()).getBody().length;
+
+        assertThat(binary).isLessThan(json).isLessThan(barray);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openwms.common.tasks.TasksApplicationTest;
+import org.openwms.common.tasks.impl.TaskEO;
+import org.openwms.common.tasks.impl.TaskMapper;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A TaskOutboxRelayTest.
+ *
+ * @author Heiko Scherrer
+ */
+@TasksApplicationTest
+class TaskOutboxRelayTest {
+
+    @Autowired
+    private TaskOutboxRepository repository;
+    @Autowired
+    private TaskMapper mapper;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    private TransactionTemplate txTemplate;
+    private RabbitOperations operations;
+    private final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+    private TaskOutboxWriter writer;
+    private TaskOutboxRelay testee;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void setUp() {
+        repository.deleteAllInBatch();
+        txTemplate = new TransactionTemplate(transactionManager);
+        operations = mock(RabbitOperations.class);
+        doAnswer(inv -> sent.add(((TaskMO) inv.getArgument(2)).getDescription()))
+                .when(operations).convertAndSend(anyString(), anyString(), any(Object.class));
+        var rabbitTemplate = mock(RabbitTemplate.class);
+        when(rabbitTemplate.invoke(any(RabbitOperations.OperationsCallback.class)))
+                .thenAnswer(inv -> ((RabbitOperations.OperationsCallback<?>) inv.getArgument(0)).doInRabbit(operations));
+        writer = new TaskOutboxWriter(repository, mapper, objectMapper);
+        testee = new TaskOutboxRelay(repository, rabbitTemplate, objectMapper, transactionManager, new SimpleMeterRegistry(),
+                "tasks", 2, Duration.ofDays(7), Duration.ofSeconds(5));
+    }
+
+    private static TaskEO task(String description) {
+        var task = new TaskEO();
+        task.setDescription(description);
+        task.setType("MANUAL");
+        return task;
+    }
+
+    private void write(String description, boolean commit) {
+        txTemplate.executeWithoutResult(status -> {
+            writer.onEvent(new TaskEvent(task(description), TaskEvent.Type.CREATED));
+            if (!commit) {
+                status.setRollbackOnly();
+            }
+        });
+    }
+
+    @Test
+    void shall_send_only_committed() {
+        write("rolled back", false);
+        write("committed", true);
+
+        testee.relay();
+
+        assertThat(sent).containsExactly("committed");
+        assertThat(repository.findAll()).hasSize(1).allMatch(m -> m.getSentAt() != null);
+    }
+
+    @Test
+    void shall_send_in_order_until_drained() {
+        for (int i = 0; i < 5; i++) {
+            write(String.valueOf(i), true);
+        }
+
+        testee.relay();
+
+        assertThat(sent).containsExactly("0", "1", "2", "3", "4");
+        assertThat(repository.findAll()).hasSize(5).allMatch(m -> m.getSentAt() != null);
+    }
+
+    @Test
+    void shall_keep_pending_if_not_confirmed() {
+        doThrow(new AmqpTimeoutException("No confirm")).when(operations).waitForConfirmsOrDie(anyLong());
+        write("unconfirmed", true);
+
+        testee.relay();
+
+        assertThat(repository.findAll()).hasSize(1).allMatch(m -> m.getSentAt() == null);
+    }
+
+    @Test
+    void shall_skip_while_another_relay_sends() throws Exception {
+        write("locked", true);
+        var locked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var otherRelay = CompletableFuture.runAsync(() -> txTemplate.executeWithoutResult(status -> {
+            repository.findPendingForUpdate(Limit.of(2));
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        testee.relay();
+        assertThat(sent).isEmpty();
+
+        release.countDown();
+        otherRelay.get(10, TimeUnit.SECONDS);
+        testee.relay();
+        assertThat(sent).containsExactly("locked");
+    }
+}
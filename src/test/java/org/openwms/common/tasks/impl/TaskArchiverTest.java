@@ -0,0 +1,127 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openwms.common.tasks.TasksApplicationTest;
+import org.openwms.common.tasks.api.TaskState;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A TaskArchiverTest.
+ *
+ * @author Heiko Scherrer
+ */
+@TasksApplicationTest
+class TaskArchiverTest {
+
+    @Autowired
+    private TaskArchiver testee;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TaskGroupService taskGroupService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private void insertTask(long pk, String state, Instant finishedAt, Long parent) {
+        jdbcTemplate.update("insert into tsk_task (c_pk, c_created, c_ol, c_pid, c_state, c_task_id, c_type, c_finished_at, c_parent_task) " +
+                        "values (?, now(), 0, ?, ?, ?, 'MANUAL', ?, ?)",
+                pk, String.valueOf(pk), state, TaskIdAllocator.toTaskId(pk), finishedAt == null ? null : Timestamp.from(finishedAt), parent);
+    }
+
+    @BeforeEach
+    void setUp() {
+        var old = Instant.now().minus(60, ChronoUnit.DAYS);
+        insertTask(6000, "FINISHED", old, null);
+        insertTask(6001, "FINISHED", Instant.now().minus(1, ChronoUnit.DAYS), null);
+        insertTask(6002, "FINISHED", old, null);
+        insertTask(6003, "CREATED", null, 6002L);
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class);
+    }
+
+    @Test
+    void shall_archive_old_finished_tasks() {
+        var archived = testee.archive();
+
+        // 6001 is too young and 6002 is still parent of an open Task
+        assertThat(archived).isEqualTo(1);
+        assertThat(count("tsk_task")).isEqualTo(3);
+        assertThat(count("tsk_task_history")).isEqualTo(1);
+
+        var task = taskService.findByPKeyOrThrow("6000");
+        assertThat(task.getTaskId()).isEqualTo(TaskIdAllocator.toTaskId(6000L));
+        assertThat(task.getState()).isEqualTo(TaskState.FINISHED);
+    }
+
+    @Test
+    void shall_keep_the_last_modification() {
+        var updated = Timestamp.from(Instant.now().minus(59, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS));
+        jdbcTemplate.update("update tsk_task set c_updated = ? where c_pk = 6000", updated);
+
+        testee.archive();
+
+        assertThat(jdbcTemplate.queryForObject("select c_updated from tsk_task_history where c_pk = 6000", Timestamp.class)).isEqualTo(updated);
+    }
+
+    @Test
+    void shall_purge_history() {
+        testee.archive();
+        jdbcTemplate.update("update tsk_task_history set c_archived_at = ?", Timestamp.from(Instant.now().minus(400, ChronoUnit.DAYS)));
+
+        testee.purge();
+
+        assertThat(count("tsk_task_history")).isZero();
+    }
+
+    @Test
+    void shall_archive_groups_only_when_finished() {
+        var old = Instant.now().minus(60, ChronoUnit.DAYS);
+        jdbcTemplate.update("insert into tsk_task_group (c_pk, c_created, c_ol, c_pid, c_name) values (7000, now(), 0, '7000', 'Open')");
+        jdbcTemplate.update("insert into tsk_task_group (c_pk, c_created, c_ol, c_pid, c_name) values (7001, now(), 0, '7001', 'Done')");
+        insertTask(7100, "FINISHED", old, null);
+        insertTask(7101, "CREATED", null, null);
+        insertTask(7102, "FINISHED", old, null);
+        insertTask(7103, "FINISHED", old, null);
+        jdbcTemplate.update("update tsk_task set c_task_group = 7000 where c_pk in (7100, 7101)");
+        jdbcTemplate.update("update tsk_task set c_task_group = 7001 where c_pk in (7102, 7103)");
+
+        var archived = testee.archive();
+
+        // 6000 and the whole finished group, 7100 stays with the open Task of its group
+        assertThat(archived).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForList("select c_pk from tsk_task_history order by c_pk", Long.class)).containsExactly(6000L, 7102L, 7103L);
+
+        var done = taskGroupService.findByPKeyOrThrow("7001");
+        assertThat(done.getTotal()).isEqualTo(2);
+        assertThat(done.getCountsByState()).containsEntry(TaskState.FINISHED, 2L);
+        assertThat(done.getProgress()).isEqualTo(100);
+        var open = taskGroupService.findByPKeyOrThrow("7000");
+        assertThat(open.getTotal()).isEqualTo(2);
+        assertThat(open.getProgress()).isEqualTo(50);
+    }
+}
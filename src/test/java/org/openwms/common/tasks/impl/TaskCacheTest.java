@@ -0,0 +1,90 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import org.junit.jupiter.api.Test;
+import org.openwms.common.tasks.api.TaskVO;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A TaskCacheTest.
+ *
+ * @author Heiko Scherrer
+ */
+class TaskCacheTest {
+
+    @SuppressWarnings("unchecked")
+    private TaskCache testee() {
+        var mapper = mock(TaskMapper.class);
+        when(mapper.copy(any())).thenAnswer(inv -> inv.getArgument(0));
+        return new TaskCache(new CaffeineCacheManager(TaskCache.CACHE_NAME), mapper, mock(ObjectProvider.class));
+    }
+
+    private static TaskVO task(String description) {
+        var vo = new TaskVO();
+        vo.setpKey("1001");
+        vo.setDescription(description);
+        return vo;
+    }
+
+    @Test
+    void shall_not_keep_a_load_that_raced_with_an_eviction() throws Exception {
+        var testee = testee();
+        var loading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var reader = Thread.ofPlatform().start(() -> testee.get("1001", () -> {
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // Read before the change has been committed
+            return task("stale");
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The change commits and evicts while the load is still in progress
+        var evictor = Thread.ofPlatform().start(() -> testee.evictAfterCommit(List.of("1001")));
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (evictor.getState() != Thread.State.BLOCKED && evictor.isAlive() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        reader.join(5000);
+        evictor.join(5000);
+
+        assertThat(testee.get("1001", () -> task("fresh")).getDescription()).isEqualTo("fresh");
+    }
+
+    @Test
+    void shall_serve_cached() {
+        var testee = testee();
+        testee.get("1001", () -> task("first"));
+
+        assertThat(testee.get("1001", () -> task("second")).getDescription()).isEqualTo("first");
+    }
+}
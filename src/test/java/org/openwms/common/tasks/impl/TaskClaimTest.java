@@ -0,0 +1,101 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openwms.common.tasks.TasksApplicationTest;
+import org.openwms.common.tasks.api.TaskClaimVO;
+import org.openwms.common.tasks.api.TaskVO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A TaskClaimTest.
+ *
+ * @author Heiko Scherrer
+ */
+@TasksApplicationTest
+class TaskClaimTest {
+
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TaskDispatchQueue dispatchQueue;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        // The test data is reset by SQL, so the queue is not maintained
+        dispatchQueue.rebuild();
+    }
+
+    private String create() {
+        var vo = new TaskVO();
+        vo.setType("CLAIMED");
+        return taskService.create(vo).getpKey();
+    }
+
+    private static TaskClaimVO claim(String assignee) {
+        var claim = new TaskClaimVO(assignee);
+        claim.setType("CLAIMED");
+        return claim;
+    }
+
+    @Test
+    void shall_skip_a_task_claimed_concurrently() throws Exception {
+        var first = create();
+        var second = create();
+        var claimed = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var holder = CompletableFuture.supplyAsync(() -> new TransactionTemplate(transactionManager).execute(status -> {
+            var task = taskService.claimNext(claim("operator-1")).orElseThrow();
+            claimed.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return task.getpKey();
+        }));
+        assertThat(claimed.await(10, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            // Like the dispatch queue of another instance, that still has the locked Task at its head
+            var head = taskRepository.findBypKey(first).orElseThrow();
+            dispatchQueue.offer(first, head.getType(), head.getDispatchAt(), head.getPk());
+
+            // Does not wait for the lock of the first claimer
+            var other = CompletableFuture.supplyAsync(() -> taskService.claimNext(claim("operator-2"))).get(5, TimeUnit.SECONDS);
+
+            assertThat(other).map(TaskVO::getpKey).contains(second);
+        } finally {
+            release.countDown();
+        }
+        assertThat(holder.get(10, TimeUnit.SECONDS)).isEqualTo(first);
+        assertThat(taskService.claimNext(claim("operator-3"))).isEmpty();
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import org.junit.jupiter.api.Test;
+import org.openwms.common.tasks.api.TaskState;
+import org.openwms.common.tasks.events.TaskCacheEvictionEvent;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * A TaskDispatchQueueTest.
+ *
+ * @author Heiko Scherrer
+ */
+class TaskDispatchQueueTest {
+
+    private static final ZonedDateTime NOW = ZonedDateTime.of(2025, 1, 1, 8, 0, 0, 0, ZoneOffset.UTC);
+    private final TaskRepository repository = mock(TaskRepository.class);
+    private final TaskDispatchQueue testee = new TaskDispatchQueue(repository, Duration.ofMinutes(5), Duration.ofMinutes(15), "tasks:1");
+
+    private void offer(String pKey, String type, int priority, ZonedDateTime dueAt, ZonedDateTime createdAt, long pk) {
+        testee.offer(pKey, type, testee.dispatchAt(priority, dueAt, createdAt), pk);
+    }
+
+    @Test
+    void shall_dispatch_by_priority_and_creation() {
+        offer("1", "MANUAL", 0, null, NOW, 1);
+        offer("2", "MANUAL", 2, null, NOW, 2);
+        offer("3", "MANUAL", 0, null, NOW.plusSeconds(1), 3);
+        offer("4", "MANUAL", 2, null, NOW.plusSeconds(1), 4);
+
+        assertThat(testee.poll("MANUAL")).contains("2");
+        assertThat(testee.poll("MANUAL")).contains("4");
+        assertThat(testee.poll("MANUAL")).contains("1");
+        assertThat(testee.poll("MANUAL")).contains("3");
+        assertThat(testee.poll("MANUAL")).isEmpty();
+    }
+
+    @Test
+    void shall_order_equal_dispatch_times_by_pk() {
+        offer("2", "MANUAL", 0, null, NOW, 2);
+        offer("1", "MANUAL", 0, null, NOW, 1);
+
+        assertThat(testee.poll("MANUAL")).contains("1");
+        assertThat(testee.poll("MANUAL")).contains("2");
+    }
+
+    @Test
+    void shall_age_waiting_tasks() {
+        // Two levels of priority are outweighed by waiting more than 10 minutes
+        offer("old", "MANUAL", 0, null, NOW.minus(Duration.ofMinutes(11)), 1);
+        offer("urgent", "MANUAL", 2, null, NOW, 2);
+
+        assertThat(testee.poll("MANUAL")).contains("old");
+        assertThat(testee.poll("MANUAL")).contains("urgent");
+    }
+
+    @Test
+    void shall_dispatch_due_tasks_ahead() {
+        // Due in 5 minutes is dispatched 10 minutes ahead, one level of priority only counts 5 minutes
+        offer("urgent", "MANUAL", 1, null, NOW, 1);
+        offer("due", "MANUAL", 0, NOW.plus(Duration.ofMinutes(5)), NOW, 2);
+
+        assertThat(testee.poll("MANUAL")).contains("due");
+        assertThat(testee.poll("MANUAL")).contains("urgent");
+    }
+
+    @Test
+    void shall_calculate_dispatch_time() {
+        assertThat(testee.dispatchAt(2, null, NOW)).isEqualTo(NOW.minus(Duration.ofMinutes(10)));
+        assertThat(testee.dispatchAt(2, NOW.plus(Duration.ofMinutes(5)), NOW)).isEqualTo(NOW.minus(Duration.ofMinutes(10)));
+        assertThat(testee.dispatchAt(0, NOW.plus(Duration.ofMinutes(5)), NOW)).isEqualTo(NOW.minus(Duration.ofMinutes(10)));
+        assertThat(testee.dispatchAt(0, NOW.plus(Duration.ofHours(1)), NOW)).isEqualTo(NOW);
+        assertThat(testee.dispatchAt(0, null, NOW.plusNanos(1_500_000))).isEqualTo(NOW.plusNanos(1_000_000));
+    }
+
+    @Test
+    void shall_limit_the_priority() {
+        assertThat(testee.dispatchAt(Integer.MAX_VALUE, null, NOW))
+                .isEqualTo(NOW.minus(Duration.ofMinutes(5L * TaskDispatchQueue.MAX_PRIORITY)));
+        assertThat(testee.dispatchAt(Integer.MIN_VALUE, null, NOW))
+                .isEqualTo(NOW.plus(Duration.ofMinutes(5L * TaskDispatchQueue.MAX_PRIORITY)));
+    }
+
+    @Test
+    void shall_reject_unknown_dispatch_times() {
+        when(repository.findDispatchable(TaskState.CREATED, List.of("1")))
+                .thenReturn(List.<Object[]>of(new Object[]{"1", "MANUAL", "2025-01-01T08:00:00Z", 1L}));
+
+        assertThatThrownBy(() -> testee.onRemoteChange(new TaskCacheEvictionEvent(this, "tasks:2", () -> "**", List.of("1"))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shall_keep_changes_made_while_rebuilding() {
+        offer("1", "MANUAL", 0, null, NOW, 1);
+        when(repository.findDispatchable(TaskState.CREATED)).thenAnswer(invocation -> {
+            // Claimed after the rebuild has read Task 1
+            testee.remove("1");
+            return List.<Object[]>of(new Object[]{"1", "MANUAL", NOW, 1L}, new Object[]{"2", "MANUAL", NOW, 2L});
+        });
+        when(repository.findDispatchable(eq(TaskState.CREATED), anyCollection())).thenReturn(List.of());
+
+        testee.rebuild();
+
+        assertThat(testee.size()).isEqualTo(1);
+        assertThat(testee.poll("MANUAL")).contains("2");
+    }
+
+    @Test
+    void shall_filter_by_type() {
+        offer("1", "MANUAL", 0, null, NOW, 1);
+        offer("2", "AUTOMATIC", 1, null, NOW, 2);
+
+        assertThat(testee.poll("UNKNOWN")).isEmpty();
+        assertThat(testee.poll("MANUAL")).contains("1");
+        assertThat(testee.poll(null)).contains("2");
+        assertThat(testee.poll(null)).isEmpty();
+    }
+
+    @Test
+    void shall_requeue_and_remove() {
+        offer("1", "MANUAL", 0, null, NOW, 1);
+        offer("2", "MANUAL", 1, null, NOW, 2);
+        offer("1", "MANUAL", 3, null, NOW, 1);
+        assertThat(testee.size()).isEqualTo(2);
+
+        testee.remove("2");
+
+        assertThat(testee.size()).isEqualTo(1);
+        assertThat(testee.poll(null)).contains("1");
+        assertThat(testee.size()).isZero();
+        assertThat(testee.poll(null)).isEmpty();
+    }
+
+    @Test
+    void shall_apply_changes_of_other_instances() {
+        offer("claimed", "MANUAL", 0, null, NOW, 1);
+        when(repository.findDispatchable(TaskState.CREATED, List.of("claimed", "created")))
+                .thenReturn(List.<Object[]>of(new Object[]{"created", "MANUAL", NOW.minusMinutes(1), 2L}));
+
+        testee.onRemoteChange(new TaskCacheEvictionEvent(this, "tasks:2", () -> "**", List.of("claimed", "created")));
+
+        assertThat(testee.size()).isEqualTo(1);
+        assertThat(testee.poll("MANUAL")).contains("created");
+    }
+
+    @Test
+    void shall_ignore_own_changes_from_the_bus() {
+        offer("1", "MANUAL", 0, null, NOW, 1);
+
+        testee.onRemoteChange(new TaskCacheEvictionEvent(this, "tasks:1", () -> "**", List.of("1")));
+
+        verifyNoInteractions(repository);
+        assertThat(testee.size()).isEqualTo(1);
+    }
+}
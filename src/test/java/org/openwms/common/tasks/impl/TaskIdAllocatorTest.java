@@ -0,0 +1,141 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import org.junit.jupiter.api.Test;
+import org.openwms.common.tasks.TasksApplicationTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A TaskIdAllocatorTest.
+ *
+ * @author Heiko Scherrer
+ */
+@TasksApplicationTest
+class TaskIdAllocatorTest {
+
+    private static final int INSTANCES = 4;
+    private static final int THREADS = 16;
+    private static final int IDS_PER_THREAD = 500;
+
+    @Autowired
+    private TaskIdRangeRepository rangeRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void shall_allocate_unique_ids_across_instances() throws Exception {
+        var instances = new ArrayList<TaskIdAllocator>(INSTANCES);
+        for (int i = 0; i < INSTANCES; i++) {
+            instances.add(new TaskIdAllocator(rangeRepository, taskRepository, transactionManager, 10));
+        }
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            var jobs = new ArrayList<Callable<Integer>>(THREADS);
+            for (int t = 0; t < THREADS; t++) {
+                var allocator = instances.get(t % INSTANCES);
+                jobs.add(() -> {
+                    start.await();
+                    var duplicates = 0;
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        if (!ids.add(allocator.nextTaskId())) {
+                            duplicates++;
+                        }
+                    }
+                    return duplicates;
+                });
+            }
+            var results = jobs.stream().map(executor::submit).toList();
+            start.countDown();
+            for (var result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS)).isZero();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(ids).hasSize(THREADS * IDS_PER_THREAD).allMatch(id -> id.matches("T\\d{10}"));
+    }
+
+    @Test
+    void shall_reserve_blocks_ahead() throws Exception {
+        var allocator = new TaskIdAllocator(rangeRepository, taskRepository, transactionManager, 100);
+
+        var first = allocator.nextId();
+        assertThat(reservedUpTo()).isEqualTo(first + 100);
+        for (int i = 1; i < 50; i++) {
+            assertThat(allocator.nextId()).isEqualTo(first + i);
+        }
+        // Served from memory, the range is not touched until half of the block is handed out
+        assertThat(reservedUpTo()).isEqualTo(first + 100);
+
+        assertThat(allocator.nextId()).isEqualTo(first + 50);
+        awaitReservedUpTo(first + 200);
+        for (int i = 51; i < 100; i++) {
+            assertThat(allocator.nextId()).isEqualTo(first + i);
+        }
+
+        // The next block has already been reserved
+        assertThat(allocator.nextId()).isEqualTo(first + 100);
+        assertThat(reservedUpTo()).isEqualTo(first + 200);
+    }
+
+    @Test
+    void shall_not_reserve_within_the_transaction_of_the_caller() {
+        var allocator = new TaskIdAllocator(rangeRepository, taskRepository, transactionManager, 10);
+        var txTemplate = new TransactionTemplate(transactionManager);
+
+        var first = txTemplate.execute(status -> {
+            var id = allocator.nextId();
+            status.setRollbackOnly();
+            return id;
+        });
+
+        // The reservation is not rolled back with the caller
+        assertThat(reservedUpTo()).isGreaterThanOrEqualTo(first + 10);
+    }
+
+    private void awaitReservedUpTo(long expected) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (reservedUpTo() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(reservedUpTo()).isEqualTo(expected);
+    }
+
+    private long reservedUpTo() {
+        return rangeRepository.findAll().stream()
+                .filter(r -> TaskIdAllocator.RANGE_NAME.equals(r.getName()))
+                .findFirst()
+                .orElseThrow()
+                .getNextId();
+    }
+}
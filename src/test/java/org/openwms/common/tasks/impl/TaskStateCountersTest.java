@@ -0,0 +1,62 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.openwms.common.tasks.api.TaskState;
+import org.openwms.common.tasks.events.TaskEvent;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A TaskStateCountersTest.
+ *
+ * @author Heiko Scherrer
+ */
+class TaskStateCountersTest {
+
+    private final TaskRepository repository = mock(TaskRepository.class);
+    private final TaskStateCounters testee = new TaskStateCounters(new SimpleMeterRegistry(), repository);
+
+    private static TaskEO task(TaskState state) {
+        var task = new TaskEO();
+        task.setType("MANUAL");
+        task.setState(state);
+        return task;
+    }
+
+    @Test
+    void shall_pick_up_changes_of_other_instances() {
+        when(repository.countByStateAndType(any())).thenReturn(List.<Object[]>of(new Object[]{TaskState.CREATED, "MANUAL", 2L}));
+        testee.rebuild();
+        testee.onEvent(new TaskEvent(task(TaskState.ACTIVE), TaskEvent.Type.STARTED, TaskState.CREATED));
+        assertThat(testee.snapshot().get(TaskState.CREATED)).containsEntry("MANUAL", 1L);
+        assertThat(testee.snapshot().get(TaskState.ACTIVE)).containsEntry("MANUAL", 1L);
+
+        // Another instance has created one Task and finished the active one
+        when(repository.countByStateAndType(any())).thenReturn(List.<Object[]>of(new Object[]{TaskState.CREATED, "MANUAL", 2L}));
+        testee.rebuild();
+
+        assertThat(testee.snapshot().get(TaskState.CREATED)).containsEntry("MANUAL", 2L);
+        assertThat(testee.snapshot().get(TaskState.ACTIVE)).containsEntry("MANUAL", 0L);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openwms.common.tasks.TasksApplicationTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A TaskStatementCountTest ensures that the number of SQL statements to list Tasks does not grow with the number of Tasks and
+ * their distinct parents and groups.
+ *
+ * @author Heiko Scherrer
+ */
+@TasksApplicationTest
+class TaskStatementCountTest {
+
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    /*
+     * Every Task gets its own group and, except the first one, the previous Task as parent.
+     */
+    private void insertTasks(int count) {
+        jdbcTemplate.execute("update tsk_task set c_parent_task = null");
+        jdbcTemplate.execute("delete from tsk_task");
+        jdbcTemplate.execute("delete from tsk_task_group");
+        for (int i = 0; i < count; i++) {
+            long pk = 5000 + i;
+            jdbcTemplate.update("insert into tsk_task_group (c_pk, c_created, c_ol, c_pid, c_name) values (?, now(), 0, ?, ?)",
+                    pk, "G" + pk, "Group " + i);
+            jdbcTemplate.update("insert into tsk_task (c_pk, c_created, c_ol, c_pid, c_state, c_task_id, c_type, c_parent_task, c_task_group) " +
+                            "values (?, now(), 0, ?, 'CREATED', ?, 'MANUAL', ?, ?)",
+                    pk, String.valueOf(pk), TaskIdAllocator.toTaskId(pk), i == 0 ? null : pk - 1, pk);
+        }
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void shall_findAll_paged_with_constant_statements() {
+        insertTasks(3);
+        var few = countStatements(() -> assertThat(taskService.findAll(null, null, 100).getContent()).hasSize(3));
+        insertTasks(40);
+        var many = countStatements(() -> assertThat(taskService.findAll(null, null, 100).getContent()).hasSize(40));
+
+        assertThat(many).isEqualTo(few);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.common.tasks.impl;
+
+import org.ameba.exception.BusinessRuntimeException;
+import org.junit.jupiter.api.Test;
+import org.openwms.common.tasks.TasksApplicationTest;
+import org.openwms.common.tasks.api.TaskState;
+import org.openwms.common.tasks.events.TaskEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A TaskTransitionTest.
+ *
+ * @author Heiko Scherrer
+ */
+@TasksApplicationTest
+@RecordApplicationEvents
+@SqlGroup({
+        @Sql(scripts = "classpath:delete-data.sql"),
+        @Sql(scripts = "classpath:test.sql")
+})
+class TaskTransitionTest {
+
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void shall_finish_from_the_usual_state() {
+        var finished = taskService.finish("1002");
+
+        assertThat(finished.getState()).isEqualTo(TaskState.FINISHED);
+        assertThat(events.stream(TaskEvent.class)).singleElement().satisfies(e -> {
+            assertThat(e.getType()).isEqualTo(TaskEvent.Type.FINISHED);
+            assertThat(e.getPreviousState()).isEqualTo(TaskState.ACTIVE);
+        });
+    }
+
+    @Test
+    void shall_finish_from_the_state_the_task_actually_has() {
+        // Like a Task paused concurrently, the update guarded by ACTIVE does not match
+        var finished = taskService.finish("1003");
+
+        assertThat(finished.getState()).isEqualTo(TaskState.FINISHED);
+        assertThat(events.stream(TaskEvent.class)).singleElement().satisfies(e -> {
+            assertThat(e.getType()).isEqualTo(TaskEvent.Type.FINISHED);
+            assertThat(e.getPreviousState()).isEqualTo(TaskState.PAUSED);
+        });
+    }
+
+    @Test
+    void shall_finish_twice_without_second_event() {
+        taskService.finish("1001");
+        var again = taskService.finish("1001");
+
+        assertThat(again.getState()).isEqualTo(TaskState.FINISHED);
+        assertThat(events.stream(TaskEvent.class)).singleElement()
+                .satisfies(e -> assertThat(e.getPreviousState()).isEqualTo(TaskState.CREATED));
+    }
+
+    @Test
+    void shall_reject_without_event() {
+        assertThatThrownBy(() -> taskService.start("1002")).isInstanceOf(BusinessRuntimeException.class);
+        assertThat(events.stream(TaskEvent.class)).isEmpty();
+    }
+}
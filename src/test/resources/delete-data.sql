@@ -1 +1,5 @@
+update tsk_task set c_parent_task = null;
 delete from tsk_task;
+delete from tsk_task_group;
+delete from tsk_task_history;
+delete from tsk_idempotent_response;